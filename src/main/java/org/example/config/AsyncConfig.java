@@ -0,0 +1,35 @@
+package org.example.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+@ConfigurationProperties(prefix = "side-effects")
+@Data
+public class AsyncConfig {
+    
+    // 커밋 후 알림/SMS 처리 스레드 수
+    private int corePoolSize = 2;
+    private int maxPoolSize = 4;
+    
+    // 대기 작업 최대 개수 (가득 차면 요청 스레드에서 직접 처리)
+    private int queueCapacity = 500;
+    
+    @Bean(name = "sideEffectExecutor")
+    public ThreadPoolTaskExecutor sideEffectExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(corePoolSize);
+        executor.setMaxPoolSize(maxPoolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("side-effect-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        return executor;
+    }
+}
@@ -0,0 +1,67 @@
+package org.example.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.service.PatientSessionRegistry;
+import org.example.service.ReceptionAccessService;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+
+/**
+ * 환자 STOMP 연결 처리
+ * CONNECT 헤더의 receptionId와 접수 시 발급한 accessToken이 맞으면 세션 사용자를 지정하고 세션 등록부에 등록한다.
+ * 환자 알림은 /user/queue/reception으로만 전달되므로 다른 환자의 /topic/reception/* 구독은 막는다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PatientChannelInterceptor implements ChannelInterceptor {
+
+    private static final String RECEPTION_HEADER = "receptionId";
+    private static final String TOKEN_HEADER = "accessToken";
+    private static final String BLOCKED_TOPIC_PREFIX = "/topic/reception/";
+
+    private final PatientSessionRegistry patientSessionRegistry;
+    private final ReceptionAccessService receptionAccessService;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) {
+            return message;
+        }
+
+        if (accessor.getCommand() == StompCommand.CONNECT) {
+            String receptionHeader = accessor.getFirstNativeHeader(RECEPTION_HEADER);
+            if (receptionHeader != null && !receptionHeader.trim().isEmpty()) {
+                Long receptionId;
+                try {
+                    receptionId = Long.valueOf(receptionHeader.trim());
+                } catch (NumberFormatException e) {
+                    throw new MessageDeliveryException("잘못된 접수 ID입니다: " + receptionHeader);
+                }
+                if (!receptionAccessService.isValid(receptionId, accessor.getFirstNativeHeader(TOKEN_HEADER))) {
+                    log.warn("접수 접근 토큰 불일치: 접수 ID {} (세션 {})", receptionId, accessor.getSessionId());
+                    throw new MessageDeliveryException("접수 확인 정보가 올바르지 않습니다.");
+                }
+                if (!patientSessionRegistry.register(accessor.getSessionId(), receptionId)) {
+                    throw new MessageDeliveryException("접속자가 많아 연결할 수 없습니다. 잠시 후 다시 시도해주세요.");
+                }
+                accessor.setUser(PatientSessionRegistry.principalOf(receptionId));
+            }
+        } else if (accessor.getCommand() == StompCommand.SUBSCRIBE) {
+            String destination = accessor.getDestination();
+            if (destination != null && destination.startsWith(BLOCKED_TOPIC_PREFIX)) {
+                log.warn("개별 접수 토픽 구독 차단: {} (세션 {})", destination, accessor.getSessionId());
+                throw new MessageDeliveryException("개별 접수 알림은 /user/queue/reception으로 구독해주세요.");
+            }
+        }
+        return message;
+    }
+}
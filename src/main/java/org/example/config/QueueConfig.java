@@ -0,0 +1,77 @@
+package org.example.config;
+
+import lombok.Data;
+import org.example.model.Reception.PriorityLane;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Configuration
+@ConfigurationProperties(prefix = "queue")
+@Data
+public class QueueConfig {
+    
+    // 동시에 진료 가능한 진료실 수
+    private int rooms = 1;
+    
+    // 대기 1분당 가산점 (모든 레인 동일)
+    private volatile double agingRate = 1.0;
+    
+    // 레인별 가중치 (우선순위 점수에 더해지는 값)
+    private volatile Map<PriorityLane, Integer> laneWeights = new EnumMap<>(PriorityLane.class);
+    
+    // 고령자 레인 기준 나이
+    private int elderlyAge = 65;
+    
+    // 진료 기록이 없을 때 사용하는 1인당 진료 시간(분)
+    private double defaultConsultationMinutes = 3;
+    
+    // 진료 시간 지수 가중 평균의 가중치 (클수록 최근 진료를 더 반영)
+    private double estimatorAlpha = 0.2;
+    
+    // 대기열 스냅샷 파일 경로 (비우면 스냅샷 미사용)
+    private String snapshotPath = "./data/queue-snapshot.bin";
+    
+    // 스냅샷 저장 주기(ms), 변경이 있을 때만 저장
+    private long snapshotIntervalMs = 5000;
+    
+    // 이보다 오래된 스냅샷은 복원하지 않음(분)
+    private long snapshotMaxAgeMinutes = 30;
+    
+    // 진료일 마감 작업 실행 시각 (cron)
+    private String rolloverCron = "0 0 0 * * *";
+    
+    // 진료일 마감 시 한 번에 처리할 접수 건수
+    private int rolloverBatchSize = 500;
+    
+    // 대기 현황판에 표시할 대기 인원 수 (앞에서부터)
+    private int displayBoardSize = 10;
+    
+    // 재연결 시 다시 보내줄 수 있도록 메모리에 보관하는 최근 대기열 이벤트 수
+    private int eventLogCapacity = 1024;
+    
+    public boolean isValidRoom(int roomNumber) {
+        return roomNumber >= 1 && roomNumber <= rooms;
+    }
+    
+    /**
+     * 레인 가중치를 대기 시간(초)으로 환산
+     * 점수 = 가중치 + 대기분 × agingRate 이므로, 가중치 / agingRate 분 먼저 확인된 것과 같은 순서가 된다.
+     */
+    public long getLaneOffsetSeconds(PriorityLane lane) {
+        return laneOffsetSeconds(lane, agingRate, laneWeights);
+    }
+    
+    /**
+     * 적용 전 설정값으로 레인 가중치를 대기 시간(초)으로 환산 (설정 변경 트랜잭션에서 사용)
+     */
+    public static long laneOffsetSeconds(PriorityLane lane, double agingRate, Map<PriorityLane, Integer> laneWeights) {
+        Integer weight = laneWeights.get(lane);
+        if (weight == null || weight <= 0 || agingRate <= 0) {
+            return 0;
+        }
+        return Math.round(weight / agingRate * 60);
+    }
+}
@@ -0,0 +1,68 @@
+package org.example.config;
+
+import lombok.Data;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+@ConfigurationProperties(prefix = "sms.client")
+@Data
+public class SmsClientConfig {
+    
+    // SMS 제공자로 유지할 최대 연결 수 (발송 스레드 수 이상)
+    private int maxConnections = 10;
+    
+    // 연결 수립, 응답 대기, 풀에서 연결을 얻기까지의 제한 시간(ms)
+    private int connectTimeoutMs = 2000;
+    private int readTimeoutMs = 5000;
+    private int connectionRequestTimeoutMs = 1000;
+    
+    // 유휴 연결을 재사용할 최대 시간(ms), 넘으면 닫고 새로 연결
+    private long keepAliveMs = 30000;
+    
+    // 연속 실패가 이 횟수에 이르면 차단 (느린 응답도 실패로 센다)
+    private int failureThreshold = 5;
+    
+    // 이보다 오래 걸린 응답은 느린 호출로 보고 실패로 센다(ms)
+    private long slowCallMs = 3000;
+    
+    // 차단 후 시험 호출을 허용하기까지의 시간(ms)
+    private long openDurationMs = 30000;
+    
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient smsHttpClient() {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(keepAliveMs, TimeUnit.MILLISECONDS);
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnections);
+        connectionManager.setValidateAfterInactivity(2000);
+        
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(connectTimeoutMs)
+                .setSocketTimeout(readTimeoutMs)
+                .setConnectionRequestTimeout(connectionRequestTimeoutMs)
+                .build();
+        
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy((response, context) -> keepAliveMs)
+                .evictIdleConnections(keepAliveMs, TimeUnit.MILLISECONDS)
+                .evictExpiredConnections()
+                .disableAutomaticRetries()
+                .build();
+    }
+    
+    @Bean(name = "smsRestTemplate")
+    public RestTemplate smsRestTemplate(CloseableHttpClient smsHttpClient) {
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(smsHttpClient));
+    }
+}
@@ -0,0 +1,51 @@
+package org.example.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+@ConfigurationProperties(prefix = "sms.outbox")
+@Data
+public class SmsOutboxConfig {
+    
+    // 발송 대기열 조회 주기(ms)
+    private long pollIntervalMs = 1000;
+    
+    // 한 번에 가져갈 최대 발송 건수 (일괄 발송 모드에서는 한 요청에 담을 최대 건수)
+    private int batchSize = 20;
+    
+    // 여러 건을 제공자의 다건 발송 API 한 번으로 보낼지 여부
+    private boolean batchMode = true;
+    
+    // 일괄 발송 모드에서 등록 후 발송까지 요청을 모으는 구간(ms)
+    private long batchWindowMs = 500;
+    
+    // 발송 스레드 수와 대기 작업 수 (가득 차면 다음 조회 때 다시 가져간다)
+    private int workerPoolSize = 2;
+    private int workerQueueCapacity = 50;
+    
+    // 최대 발송 시도 횟수 (넘으면 FAILED)
+    private int maxAttempts = 5;
+    
+    // 재시도 간격: 첫 재시도 간격에서 시도마다 두 배, 최대 간격까지
+    private long initialBackoffMs = 2000;
+    private long maxBackoffMs = 300000;
+    
+    // 이 시간(분) 이상 SENDING에 머문 요청은 발송 중 종료된 것으로 보고 다시 발송
+    private long staleSendingMinutes = 5;
+    
+    @Bean(name = "smsDispatchExecutor")
+    public ThreadPoolTaskExecutor smsDispatchExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workerPoolSize);
+        executor.setMaxPoolSize(workerPoolSize);
+        executor.setQueueCapacity(workerQueueCapacity);
+        executor.setThreadNamePrefix("sms-dispatch-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        return executor;
+    }
+}
@@ -0,0 +1,20 @@
+package org.example.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@ConfigurationProperties(prefix = "sms.rules")
+@Data
+public class SmsRuleConfig {
+    
+    // 알림을 보낼 대기 순번 목록 (예: 5, 2). 비어 있으면 간호사 화면에서 정한 발송 시점 하나만 사용
+    private List<Integer> positions = new ArrayList<>();
+    
+    // 의사 호출 시 진료실 입장 안내 SMS 발송 여부
+    private boolean onCall = false;
+}
@@ -1,28 +1,127 @@
 package org.example.config;
 
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.service.WebSocketChannelMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.simp.config.StompBrokerRelayRegistration;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
 
 @Configuration
 @EnableWebSocketMessageBroker
+@RequiredArgsConstructor
+@Slf4j
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final PatientChannelInterceptor patientChannelInterceptor;
+    private final WebSocketProperties webSocketProperties;
+    private final WebSocketChannelMetrics webSocketChannelMetrics;
+
+    // 내장 브로커 하트비트용 스케줄러 (브로커 설정이 만드는 빈이라 지연 주입)
+    private TaskScheduler messageBrokerTaskScheduler;
+
+    @Autowired
+    public void setMessageBrokerTaskScheduler(@Lazy @Qualifier("messageBrokerTaskScheduler") TaskScheduler taskScheduler) {
+        this.messageBrokerTaskScheduler = taskScheduler;
+    }
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
         // 클라이언트에게 메시지를 전송할 때 사용할 prefix
-        config.enableSimpleBroker("/topic", "/queue");
+        if (webSocketProperties.isRelayMode()) {
+            // 외부 브로커는 구독만 공유한다. 대기열 상태는 인스턴스마다 따로이므로 인스턴스 하나일 때만 시작한다
+            WebSocketProperties.Broker broker = webSocketProperties.getBroker();
+            if (!broker.isSingleInstance()) {
+                throw new IllegalStateException("relay 모드는 대기열 상태를 인스턴스 간에 공유하지 않아 인스턴스 하나로만 실행할 수 있습니다. "
+                        + "인스턴스가 하나뿐이면 websocket.broker.single-instance=true로 설정해주세요.");
+            }
+            StompBrokerRelayRegistration relay = config.enableStompBrokerRelay("/topic", "/queue")
+                    .setRelayHost(broker.getRelayHost())
+                    .setRelayPort(broker.getRelayPort())
+                    .setClientLogin(broker.getClientLogin())
+                    .setClientPasscode(broker.getClientPasscode())
+                    .setSystemLogin(broker.getSystemLogin())
+                    .setSystemPasscode(broker.getSystemPasscode())
+                    // 다른 인스턴스에 연결된 환자에게도 개인 알림이 전달되도록 사용자 정보 공유
+                    .setUserDestinationBroadcast(broker.getUserDestinationBroadcast())
+                    .setUserRegistryBroadcast(broker.getUserRegistryBroadcast())
+                    // 브로커와의 공용 연결 하트비트 (클라이언트 하트비트는 브로커와 직접 협상된다)
+                    .setSystemHeartbeatSendInterval(webSocketProperties.getHeartbeat()[0])
+                    .setSystemHeartbeatReceiveInterval(webSocketProperties.getHeartbeat()[1]);
+            if (broker.getVirtualHost() != null) {
+                relay.setVirtualHost(broker.getVirtualHost());
+            }
+            log.info("외부 STOMP 브로커 사용 (단일 인스턴스): {}:{}", broker.getRelayHost(), broker.getRelayPort());
+        } else {
+            // 하트비트가 끊긴 세션은 브로커가 구독과 함께 정리한다
+            config.enableSimpleBroker("/topic", "/queue")
+                    .setHeartbeatValue(webSocketProperties.getHeartbeat())
+                    .setTaskScheduler(messageBrokerTaskScheduler);
+        }
         // 클라이언트에서 서버로 메시지를 보낼 때 사용할 prefix
         config.setApplicationDestinationPrefixes("/app");
+        // 환자별 알림 (/user/queue/reception)
+        config.setUserDestinationPrefix("/user");
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        WebSocketProperties.Channel inbound = webSocketProperties.getInbound();
+        registration.interceptors(patientChannelInterceptor)
+                .taskExecutor()
+                .corePoolSize(inbound.getCorePoolSize())
+                .maxPoolSize(inbound.getMaxPoolSize())
+                .queueCapacity(inbound.getQueueCapacity())
+                .keepAliveSeconds(inbound.getKeepAliveSeconds());
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        WebSocketProperties.Channel outbound = webSocketProperties.getOutbound();
+        registration.taskExecutor()
+                .corePoolSize(outbound.getCorePoolSize())
+                .maxPoolSize(outbound.getMaxPoolSize())
+                .queueCapacity(outbound.getQueueCapacity())
+                .keepAliveSeconds(outbound.getKeepAliveSeconds());
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        // 제한을 넘긴 세션은 SESSION_NOT_RELIABLE로 끊기고, 클라이언트는 재연결 후 전체 조회로 복구한다
+        WebSocketProperties.Transport transport = webSocketProperties.getTransport();
+        registration.setSendTimeLimit(transport.getSendTimeLimitMs())
+                .setSendBufferSizeLimit(transport.getSendBufferSizeLimit())
+                .setMessageSizeLimit(transport.getMessageSizeLimit())
+                .addDecoratorFactory(handler -> new WebSocketHandlerDecorator(handler) {
+                    @Override
+                    public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                        webSocketChannelMetrics.onSessionClosed(closeStatus);
+                        if (CloseStatus.SESSION_NOT_RELIABLE.equalsCode(closeStatus)) {
+                            log.warn("전송 지연으로 세션 종료: {}", session.getId());
+                        }
+                        super.afterConnectionClosed(session, closeStatus);
+                    }
+                });
     }
 
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         // WebSocket 연결 엔드포인트
         registry.addEndpoint("/ws")
-                .setAllowedOriginPatterns("*")
-                .withSockJS();
+                .setAllowedOriginPatterns(webSocketProperties.getAllowedOrigins())
+                .withSockJS()
+                .setHeartbeatTime(webSocketProperties.getSockJsHeartbeatMs());
     }
 } 
\ No newline at end of file
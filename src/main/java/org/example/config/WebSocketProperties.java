@@ -0,0 +1,100 @@
+package org.example.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "websocket")
+@Data
+public class WebSocketProperties {
+    
+    // 허용할 Origin 패턴
+    private String[] allowedOrigins = {"*"};
+    
+    // 대기열 알림을 모아서 보내는 구간(ms), 0이면 즉시 전송
+    private long coalesceWindowMs = 50;
+    
+    // 동시에 연결 가능한 환자 세션 수 상한 (WebSocket, SSE 각각)
+    private int maxPatientSessions = 5000;
+    
+    // SSE 연결 유지 시간(ms), 만료되면 브라우저가 자동으로 다시 연결
+    private long sseTimeoutMs = 1800000;
+    
+    // SSE 유휴 연결 유지용 주석 전송 주기(ms)
+    private long sseHeartbeatMs = 20000;
+    
+    // 값이 없는 필드를 생략한 간결한 메시지 형식 사용
+    private boolean compactEncoding = false;
+    
+    private Broker broker = new Broker();
+    
+    // 클라이언트 -> 서버 메시지 처리 스레드 풀
+    private Channel inbound = new Channel();
+    
+    // 서버 -> 클라이언트 메시지 전송 스레드 풀 (느린 클라이언트가 많으면 큐가 쌓인다)
+    private Channel outbound = new Channel();
+    
+    private Transport transport = new Transport();
+    
+    // STOMP 하트비트 주기(ms): [서버 -> 클라이언트 전송, 클라이언트 -> 서버 수신 기대], 0이면 사용 안 함
+    // 수신 기대 주기의 3배 동안 아무 프레임도 받지 못하면 끊긴 세션으로 보고 정리한다
+    private long[] heartbeat = {10000, 10000};
+    
+    // SockJS 하트비트 주기(ms), 프록시의 유휴 연결 끊김 방지
+    private long sockJsHeartbeatMs = 25000;
+    
+    public boolean isRelayMode() {
+        return broker.getMode() == BrokerMode.RELAY;
+    }
+    
+    public enum BrokerMode {
+        SIMPLE,   // 애플리케이션 내장 브로커 (단일 인스턴스, 개발/테스트용)
+        RELAY     // 외부 STOMP 브로커 (RabbitMQ, ActiveMQ 등, 구독과 전송만 브로커가 맡는다)
+    }
+    
+    @Data
+    public static class Broker {
+        private BrokerMode mode = BrokerMode.SIMPLE;
+        private String relayHost = "localhost";
+        private int relayPort = 61613;
+        private String virtualHost;
+        
+        // 클라이언트 세션이 브로커에 접속할 때 사용하는 계정
+        private String clientLogin = "guest";
+        private String clientPasscode = "guest";
+        
+        // 서버가 브로커에 메시지를 보낼 때 사용하는 공용 연결 계정
+        private String systemLogin = "guest";
+        private String systemPasscode = "guest";
+        
+        // 다른 인스턴스에 연결된 사용자에게 보낼 메시지와 사용자 목록을 공유하는 목적지
+        private String userDestinationBroadcast = "/topic/unresolved-user-destination";
+        private String userRegistryBroadcast = "/topic/simp-user-registry";
+        
+        // 외부 브로커에 붙는 애플리케이션 인스턴스가 하나뿐임을 확인했는지 (relay 모드 시작 조건)
+        // 대기열 인덱스, 이벤트 순번과 재전송 기록, 현황판, SSE 연결은 인스턴스별 메모리 상태라
+        // 인스턴스가 여럿이면 서로의 변경을 모르고 순번이 섞이므로, 공유 상태가 생기기 전까지는 하나만 허용한다
+        private boolean singleInstance = false;
+    }
+    
+    @Data
+    public static class Channel {
+        private int corePoolSize = Runtime.getRuntime().availableProcessors() * 2;
+        private int maxPoolSize = Runtime.getRuntime().availableProcessors() * 4;
+        private int queueCapacity = 10000;
+        private int keepAliveSeconds = 60;
+    }
+    
+    /**
+     * 세션별 전송 제한
+     * 한 세션에 대한 전송이 제한 시간을 넘기거나 보내지 못한 메시지가 버퍼 크기를 넘으면
+     * 그 세션을 끊어 느린 클라이언트 하나가 전송 스레드를 붙잡지 않도록 한다.
+     */
+    @Data
+    public static class Transport {
+        private int sendTimeLimitMs = 10000;
+        private int sendBufferSizeLimit = 512 * 1024;
+        private int messageSizeLimit = 64 * 1024;
+    }
+}
@@ -0,0 +1,25 @@
+package org.example.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.example.service.DisplayBoardService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/display-board")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class DisplayBoardController {
+    
+    private final DisplayBoardService displayBoardService;
+    
+    /**
+     * 대기 현황판 전체 조회 (이후 변경분은 /topic/display-board로 수신)
+     */
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getSnapshot() {
+        return ResponseEntity.ok(displayBoardService.getSnapshot());
+    }
+}
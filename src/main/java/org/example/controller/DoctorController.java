@@ -34,12 +34,25 @@ public class DoctorController {
     }
     
     /**
-     * 다음 환자 호출
+     * 대기열 항목 조회 (대기열 이벤트에는 환자 이름이 없으므로 새로 들어온 접수만 ID로 조회)
+     */
+    @GetMapping("/reception/{receptionId}")
+    public ResponseEntity<ReceptionResponse> getReception(@PathVariable Long receptionId) {
+        try {
+            return ResponseEntity.ok(receptionService.getReception(receptionId));
+        } catch (RuntimeException e) {
+            log.warn("접수를 찾을 수 없음: 접수 ID {}", receptionId);
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
+    /**
+     * 다음 환자 호출 (진료실별)
      */
     @PostMapping("/call-next")
-    public ResponseEntity<PatientInfoResponse> callNextPatient() {
-        log.info("다음 환자 호출 요청");
-        PatientInfoResponse patientInfo = receptionService.callNextPatient();
+    public ResponseEntity<PatientInfoResponse> callNextPatient(@RequestParam(defaultValue = "1") int room) {
+        log.info("다음 환자 호출 요청: {}번 진료실", room);
+        PatientInfoResponse patientInfo = receptionService.callNextPatient(room);
         return ResponseEntity.ok(patientInfo);
     }
     
@@ -47,9 +60,9 @@ public class DoctorController {
      * 현재 진료 중인 환자 목록 조회
      */
     @GetMapping("/current-patients")
-    public ResponseEntity<List<PatientInfoResponse>> getCurrentPatients() {
-        log.info("현재 진료 중인 환자 목록 조회");
-        List<PatientInfoResponse> patients = receptionService.getCalledPatients();
+    public ResponseEntity<List<PatientInfoResponse>> getCurrentPatients(@RequestParam(required = false) Integer room) {
+        log.info("현재 진료 중인 환자 목록 조회: 진료실 {}", room != null ? room : "전체");
+        List<PatientInfoResponse> patients = receptionService.getCalledPatients(room);
         return ResponseEntity.ok(patients);
     }
     
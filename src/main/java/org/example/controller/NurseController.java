@@ -3,15 +3,18 @@ package org.example.controller;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.dto.*;
+import org.example.model.Reception.PriorityLane;
 import org.example.service.PrescriptionService;
 import org.example.service.ReceptionService;
 import org.example.service.StatisticsService;
 import org.example.service.SmsService;
+import org.example.service.WaitingQueueService;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -27,6 +30,7 @@ public class NurseController {
     private final PrescriptionService prescriptionService;
     private final StatisticsService statisticsService;
     private final SmsService smsService;
+    private final WaitingQueueService waitingQueueService;
     
     /**
      * 대기 중인 접수 목록 조회 (신분증 미확인)
@@ -304,6 +308,87 @@ public class NurseController {
         }
     }
     
+    /**
+     * 접수별 우선순위 레인 변경 (응급 지정 등)
+     */
+    @PutMapping("/reception/{receptionId}/lane")
+    public ResponseEntity<ReceptionResponse> updatePriorityLane(
+            @PathVariable Long receptionId,
+            @RequestBody Map<String, Object> request) {
+        PriorityLane lane = parseLane(request.get("lane"));
+        if (lane == null) {
+            log.warn("잘못된 우선순위 레인: 접수 ID {}, {}", receptionId, request.get("lane"));
+            return ResponseEntity.badRequest().build();
+        }
+        log.info("우선순위 레인 변경 요청: 접수 ID {}, 레인 {}", receptionId, lane);
+        ReceptionResponse response = receptionService.changePriorityLane(receptionId, lane);
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * 우선순위 레인 설정 조회
+     */
+    @GetMapping("/queue-lanes")
+    public ResponseEntity<Map<String, Object>> getQueueLaneSettings() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("agingRate", waitingQueueService.getAgingRate());
+        response.put("laneWeights", waitingQueueService.getLaneWeights());
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * 우선순위 레인 설정 변경 (재시작 없이 즉시 적용)
+     */
+    @PutMapping("/queue-lanes")
+    public ResponseEntity<Map<String, Object>> updateQueueLaneSettings(@RequestBody Map<String, Object> request) {
+        Object rate = request.get("agingRate");
+        if (rate != null && !(rate instanceof Number && ((Number) rate).doubleValue() > 0)) {
+            return laneSettingsBadRequest("대기 가산점은 0보다 큰 숫자여야 합니다.");
+        }
+        Double agingRate = rate != null ? ((Number) rate).doubleValue() : null;
+        
+        Map<PriorityLane, Integer> laneWeights = null;
+        Object weights = request.get("laneWeights");
+        if (weights != null && !(weights instanceof Map)) {
+            return laneSettingsBadRequest("레인 가중치 형식이 올바르지 않습니다.");
+        }
+        if (weights != null) {
+            laneWeights = new EnumMap<>(PriorityLane.class);
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) weights).entrySet()) {
+                PriorityLane lane = parseLane(entry.getKey());
+                if (lane == null) {
+                    return laneSettingsBadRequest("알 수 없는 레인입니다: " + entry.getKey());
+                }
+                if (!(entry.getValue() instanceof Integer || entry.getValue() instanceof Long)) {
+                    return laneSettingsBadRequest("레인 가중치는 정수(분)여야 합니다: " + entry.getKey());
+                }
+                laneWeights.put(lane, ((Number) entry.getValue()).intValue());
+            }
+        }
+        
+        log.info("우선순위 레인 설정 변경 요청: 가산점 {}, 가중치 {}", agingRate, laneWeights);
+        waitingQueueService.updateLaneSettings(agingRate, laneWeights);
+        return getQueueLaneSettings();
+    }
+    
+    private static PriorityLane parseLane(Object value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return PriorityLane.valueOf(String.valueOf(value).trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+    
+    private static ResponseEntity<Map<String, Object>> laneSettingsBadRequest(String message) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("message", message);
+        return ResponseEntity.badRequest().body(response);
+    }
+    
     /**
      * SMS 모드 조회 (시뮬레이션 모드 vs 실제 발송 모드)
      */
@@ -5,15 +5,15 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.dto.PatientRegistrationRequest;
 import org.example.dto.ReceptionResponse;
-import org.example.model.Reception;
+import org.example.dto.WaitingStatusResponse;
+import org.example.service.PatientEventStreamService;
+import org.example.service.ReceptionAccessService;
 import org.example.service.ReceptionService;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/api/patient")
@@ -23,6 +23,8 @@ import java.util.Map;
 public class PatientController {
     
     private final ReceptionService receptionService;
+    private final PatientEventStreamService patientEventStreamService;
+    private final ReceptionAccessService receptionAccessService;
     
     /**
      * QR 코드 스캔 후 환자 접수
@@ -52,56 +54,40 @@ public class PatientController {
         return ResponseEntity.ok().build();
     }
 
+    /**
+     * 환자 대기 현황 조회 (대기 화면에서 주기적으로 호출)
+     */
     @GetMapping("/reception/status/{receptionId}")
-    public ResponseEntity<Map<String, Object>> getWaitingStatus(@PathVariable Long receptionId) {
-        log.info("Fetching waiting status for reception ID: {}", receptionId);
-        try {
-            log.info("Step 1: Finding reception by ID");
-            Reception reception = receptionService.findById(receptionId);
-            if (reception == null) {
-                log.warn("Reception not found for ID: {}", receptionId);
-                return ResponseEntity.notFound().build();
-            }
-            log.info("Step 2: Found reception: {}", reception.getId());
-
-            log.info("Step 3: Getting patient info");
-            if (reception.getPatient() == null) {
-                log.error("Patient is null for reception ID: {}", receptionId);
-                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-            }
-            log.info("Step 4: Patient found: {}", reception.getPatient().getName());
-
-            log.info("Step 5: Calculating waiting position");
-            int waitingPosition = receptionService.getWaitingPosition(receptionId);
-            log.info("Step 6: Waiting position calculated: {}", waitingPosition);
-            
-            log.info("Step 7: Getting total waiting count");
-            int totalWaiting = receptionService.getCurrentWaitingCount();
-            log.info("Step 8: Total waiting count: {}", totalWaiting);
-
-            log.info("Step 9: Building response");
-            Map<String, Object> response = new HashMap<>();
-            response.put("receptionId", reception.getId());
-            response.put("patientName", reception.getPatient().getName());
-            response.put("phoneNumber", reception.getPatient().getPhoneNumber());
-            response.put("createdAt", reception.getCreatedAt());
-            response.put("confirmedAt", reception.getConfirmedAt());
-            response.put("status", reception.getStatus());
-            response.put("waitingPosition", waitingPosition);
-            response.put("totalWaiting", totalWaiting);
-            response.put("smsNotificationEnabled", reception.getSmsNotificationEnabled());
-            response.put("smsSent", reception.getSmsSent());
-
-            log.info("Step 10: Response built successfully");
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            log.error("Error fetching waiting status for reception ID: {}", receptionId, e);
-            log.error("Exception type: {}", e.getClass().getSimpleName());
-            log.error("Exception message: {}", e.getMessage());
-            if (e.getCause() != null) {
-                log.error("Exception cause: {}", e.getCause().getMessage());
-            }
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+    public ResponseEntity<WaitingStatusResponse> getWaitingStatus(@PathVariable Long receptionId) {
+        log.debug("대기 현황 조회: 접수 ID {}", receptionId);
+        WaitingStatusResponse response = receptionService.getWaitingStatus(receptionId);
+        if (response == null) {
+            log.warn("Reception not found for ID: {}", receptionId);
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * 환자 대기 현황 스트림 (SSE, WebSocket 연결이 안 될 때 폴링 대신 사용)
+     * 연결 시 현재 현황(status), 이후 순번 변경(rank)과 상태 변경/호출 알림을 전송한다.
+     * 접수 시 발급한 토큰(token)이 맞아야 연결된다.
+     */
+    @GetMapping(value = "/reception/{receptionId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamWaitingStatus(@PathVariable Long receptionId,
+                                                          @RequestParam(required = false) String token) {
+        if (!receptionAccessService.isValid(receptionId, token)) {
+            log.warn("접수 접근 토큰 불일치: 접수 ID {}", receptionId);
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        WaitingStatusResponse status = receptionService.getWaitingStatus(receptionId);
+        if (status == null) {
+            return ResponseEntity.notFound().build();
+        }
+        SseEmitter emitter = patientEventStreamService.open(receptionId, status);
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
         }
+        return ResponseEntity.ok(emitter);
     }
 } 
\ No newline at end of file
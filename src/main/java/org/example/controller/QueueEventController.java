@@ -0,0 +1,41 @@
+package org.example.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.example.dto.QueueDeltaEvent;
+import org.example.service.QueueEventLog;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/queue")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class QueueEventController {
+    
+    private final QueueEventLog queueEventLog;
+    
+    /**
+     * 재연결 시 놓친 대기열 이벤트 조회
+     * 다시 보낼 수 있으면 QUEUE_REPLAY(이벤트 목록), 아니면 QUEUE_RESYNC(전체 다시 조회)를 반환한다.
+     * 인증 없이 호출되므로 이벤트에는 접수 ID와 순번만 있고 환자 정보는 없다 (QueueDeltaEvent).
+     */
+    @GetMapping("/events")
+    public ResponseEntity<Map<String, Object>> getEventsSince(@RequestParam long since) {
+        List<QueueDeltaEvent> events = queueEventLog.since(since);
+        Map<String, Object> response = new HashMap<>();
+        if (events == null) {
+            response.put("type", "QUEUE_RESYNC");
+            response.put("seq", queueEventLog.getHeadSeq());
+        } else {
+            response.put("type", "QUEUE_REPLAY");
+            response.put("fromSeq", since);
+            response.put("toSeq", events.isEmpty() ? since : events.get(events.size() - 1).getSeq());
+            response.put("events", events);
+        }
+        return ResponseEntity.ok(response);
+    }
+}
@@ -2,12 +2,18 @@ package org.example.controller;
 
 import lombok.RequiredArgsConstructor;
 import org.example.dto.DailyStatisticsResponse;
+import org.example.service.RealtimeNotificationService;
+import org.example.service.SmsCircuitBreaker;
+import org.example.service.SmsOutboxDispatcher;
 import org.example.service.StatisticsService;
+import org.example.service.WebSocketChannelMetrics;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/statistics")
@@ -16,6 +22,10 @@ import java.time.LocalDate;
 public class StatisticsController {
     
     private final StatisticsService statisticsService;
+    private final RealtimeNotificationService realtimeNotificationService;
+    private final WebSocketChannelMetrics webSocketChannelMetrics;
+    private final SmsOutboxDispatcher smsOutboxDispatcher;
+    private final SmsCircuitBreaker smsCircuitBreaker;
     
     /**
      * 오늘 통계 조회
@@ -35,4 +45,32 @@ public class StatisticsController {
         DailyStatisticsResponse statistics = statisticsService.getDailyStatistics(date);
         return ResponseEntity.ok(statistics);
     }
+    
+    /**
+     * 실시간 알림 전송 통계 조회 (전송 수, 병합/대체된 이벤트 수)
+     */
+    @GetMapping("/broadcast")
+    public ResponseEntity<Map<String, Object>> getBroadcastMetrics() {
+        return ResponseEntity.ok(realtimeNotificationService.getBroadcastMetrics());
+    }
+    
+    /**
+     * STOMP 채널 상태 조회 (채널별 대기 큐 길이, 느린 클라이언트 세션 종료 수)
+     */
+    @GetMapping("/channels")
+    public ResponseEntity<Map<String, Object>> getChannelMetrics() {
+        return ResponseEntity.ok(webSocketChannelMetrics.getMetrics());
+    }
+    
+    /**
+     * SMS 발송 대기열 상태별 건수, 제공자 차단 상태, 발송 처리량 조회
+     */
+    @GetMapping("/sms-outbox")
+    public ResponseEntity<Map<String, Object>> getSmsOutboxStatus() {
+        Map<String, Object> status = new HashMap<>();
+        status.put("counts", smsOutboxDispatcher.getStatusCounts());
+        status.put("circuitState", smsCircuitBreaker.getState());
+        status.put("throughput", smsOutboxDispatcher.getThroughput());
+        return ResponseEntity.ok(status);
+    }
 } 
\ No newline at end of file
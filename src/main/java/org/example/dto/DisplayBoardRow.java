@@ -0,0 +1,25 @@
+package org.example.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Builder;
+import lombok.Data;
+import org.example.model.Reception.ReceptionStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * 대기 현황판 한 줄 (대기 순번 행 또는 진료실 호출 행)
+ * 로비 화면에 그대로 노출되므로 이름은 가려서 담고 접수 ID는 내보내지 않는다.
+ */
+@Data
+@Builder
+public class DisplayBoardRow {
+
+    @JsonIgnore
+    private Long receptionId;
+    private int position; // 대기 순번 (호출 행은 0)
+    private String name; // 가린 이름 (예: 홍*동)
+    private ReceptionStatus status;
+    private Integer roomNumber; // 호출된 진료실 번호
+    private LocalDateTime calledAt;
+}
@@ -19,6 +19,9 @@ public class PatientRegistrationRequest {
     @NotBlank(message = "전화번호는 필수입니다")
     @Pattern(regexp = "^\\d{3}-\\d{4}-\\d{4}$", message = "전화번호 형식이 올바르지 않습니다 (예: 010-1234-5678)")
     private String phoneNumber;
+    
+    // 보호자가 대신 접수했는지 여부 (보호자 동반 레인 분류에 사용)
+    private Boolean isGuardian;
 
     private String visitReason;
     private String symptoms;
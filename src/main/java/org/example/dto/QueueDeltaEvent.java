@@ -0,0 +1,38 @@
+package org.example.dto;
+
+import lombok.Builder;
+import lombok.Data;
+import org.example.model.Reception.ReceptionStatus;
+
+/**
+ * 대기열 변경 이벤트 (/topic/waiting-queue)
+ * 대기열은 CONFIRMED(호출 순) 뒤에 PENDING(접수 순)이 이어지는 하나의 줄로 보며,
+ * 위치 0은 대기열 밖(호출됨, 완료, 삭제)을 뜻한다.
+ * fromPosition에서 빠지고 toPosition에 들어가므로 그 사이 항목의 순번은 클라이언트가 직접 1씩 조정한다.
+ * 누구나 구독할 수 있는 목적지이므로 환자 이름 등 개인정보는 담지 않는다 (직원 화면은 접수 ID로 따로 조회).
+ */
+@Data
+@Builder
+public class QueueDeltaEvent {
+
+    public enum Op {
+        ADDED,          // 대기열에 새로 추가
+        MOVED,          // 상태가 바뀌며 이동 (PENDING -> CONFIRMED, CONFIRMED -> CALLED 등)
+        RANK_CHANGED,   // 같은 상태에서 순번만 변경 (레인 변경 등)
+        REMOVED         // 대기열 및 진료실에서 제거
+    }
+
+    @Builder.Default
+    private String type = "QUEUE_DELTA";
+    private long seq; // 이벤트 순번 (1씩 증가, 건너뛰면 전체 조회 필요)
+    private Op op;
+    private Long receptionId;
+    private ReceptionStatus fromStatus;
+    private ReceptionStatus toStatus;
+    private int fromPosition;
+    private int toPosition;
+    private Integer roomNumber;
+    private int confirmedCount;
+    private int pendingCount;
+    private long timestamp;
+}
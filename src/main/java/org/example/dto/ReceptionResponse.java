@@ -2,6 +2,7 @@ package org.example.dto;
 
 import lombok.Data;
 import lombok.Builder;
+import org.example.model.Reception.PriorityLane;
 import org.example.model.Reception.ReceptionStatus;
 
 import java.time.LocalDate;
@@ -18,13 +19,16 @@ public class ReceptionResponse {
     private String phoneNumber;
     private ReceptionStatus status;
     private Boolean isGuardian;
+    private PriorityLane priorityLane; // 우선순위 레인
     private Boolean notifyEnabled; // SMS 알림 활성화 여부
     private Integer notifyAt;
     private LocalDateTime createdAt;
     private LocalDateTime confirmedAt;
     private LocalDateTime calledAt;
     private LocalDateTime completedAt;
+    private Integer roomNumber; // 호출된 진료실 번호
     private int waitingPosition; // 대기 순번
     private boolean isNewPatient; // 신규 환자 여부
     private boolean hasSurvey; // 문진표 작성 여부
+    private String accessToken; // 대기 화면 접근 토큰 (접수 직후 응답에만 포함)
 } 
\ No newline at end of file
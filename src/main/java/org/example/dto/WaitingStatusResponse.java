@@ -0,0 +1,25 @@
+package org.example.dto;
+
+import lombok.Builder;
+import lombok.Data;
+import org.example.model.Reception.ReceptionStatus;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class WaitingStatusResponse {
+    
+    private Long receptionId;
+    private String patientName;
+    private String phoneNumber;
+    private LocalDateTime createdAt;
+    private LocalDateTime confirmedAt;
+    private ReceptionStatus status;
+    private int waitingPosition; // 대기 순번
+    private int totalWaiting; // 전체 대기 인원
+    private int estimatedWaitMinutes; // 예상 대기 시간(분)
+    private Boolean smsNotificationEnabled;
+    private Boolean smsSent;
+    private long queueSeq; // 조회 시점의 대기열 이벤트 순번
+}
@@ -5,10 +5,13 @@ import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 
 import javax.persistence.*;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "receptions")
+@Table(name = "receptions", indexes = {
+    @Index(name = "idx_receptions_service_date_status", columnList = "service_date, status")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -17,6 +20,11 @@ public class Reception {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // 낙관적 잠금 버전 (상태 변경은 조건부 UPDATE로 처리하며 함께 증가시킨다)
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "patient_id", nullable = false)
     private Patient patient;
@@ -28,6 +36,10 @@ public class Reception {
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
 
+    // 진료일 (대기열은 당일 접수만 대상으로 한다)
+    @Column(name = "service_date")
+    private LocalDate serviceDate = LocalDate.now();
+
     @Column(name = "confirmed_at")
     private LocalDateTime confirmedAt;
 
@@ -37,6 +49,9 @@ public class Reception {
     @Column(name = "completed_at")
     private LocalDateTime completedAt;
 
+    @Column(name = "room_number")
+    private Integer roomNumber;
+
     @Column(name = "is_guardian")
     private Boolean isGuardian = false;
 
@@ -46,10 +61,31 @@ public class Reception {
     @Column(name = "sms_sent")
     private Boolean smsSent = false;
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "priority_lane")
+    private PriorityLane priorityLane = PriorityLane.NORMAL;
+
+    // 대기 순서 기준 시각 (확인 시각에서 레인 가중치만큼 앞당긴 값)
+    @Column(name = "priority_at")
+    private LocalDateTime priorityAt;
+
+    // 환자 대기 화면 접근 토큰 (접수 응답으로만 전달, 개인 알림 연결 시 확인)
+    @Column(name = "access_token", length = 64)
+    private String accessToken;
+
     public enum ReceptionStatus {
         PENDING,     // 대기 중
         CONFIRMED,   // 간호사 확인 완료
         CALLED,      // 의사 호출
-        COMPLETED    // 진료 완료
+        COMPLETED,   // 진료 완료
+        CLOSED       // 진료일 마감 (당일 처리되지 않은 접수)
+    }
+
+    public enum PriorityLane {
+        EMERGENCY,   // 응급
+        ELDERLY,     // 고령자
+        GUARDIAN,    // 보호자 동반
+        FOLLOW_UP,   // 재진
+        NORMAL       // 일반
     }
 } 
\ No newline at end of file
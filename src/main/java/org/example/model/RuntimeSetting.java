@@ -0,0 +1,33 @@
+package org.example.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * 실행 중 변경 가능한 설정 (SMS 모드, 발송 시점 등)
+ * 모든 서버가 이 테이블을 기준으로 같은 값을 보며, 값이 바뀔 때마다 version이 1씩 증가한다.
+ */
+@Entity
+@Table(name = "runtime_settings")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RuntimeSetting {
+    
+    @Id
+    @Column(name = "setting_key", length = 100)
+    private String settingKey;
+    
+    @Column(name = "setting_value", nullable = false, length = 500)
+    private String settingValue;
+    
+    @Column(nullable = false)
+    private long version;
+    
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
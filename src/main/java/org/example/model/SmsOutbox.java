@@ -0,0 +1,71 @@
+package org.example.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * SMS 발송 대기열 (outbox)
+ * 대기열 처리 트랜잭션에서는 이 테이블에 한 행만 추가하고, 실제 발송은 별도 발송기가 맡는다.
+ * 같은 알림은 idempotency_key로 한 번만 등록된다.
+ */
+@Entity
+@Table(name = "sms_outbox", indexes = {
+    @Index(name = "idx_sms_outbox_status_next_attempt", columnList = "status, next_attempt_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SmsOutbox {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "idempotency_key", nullable = false, unique = true, length = 100)
+    private String idempotencyKey;
+
+    @Column(name = "reception_id", nullable = false)
+    private Long receptionId;
+
+    @Column(name = "phone_number", nullable = false)
+    private String phoneNumber;
+
+    @Column(name = "patient_name")
+    private String patientName;
+    
+    // 발송할 문구 (비어 있으면 기본 대기 안내 문구)
+    @Column(name = "message_text", length = 500)
+    private String messageText;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OutboxStatus status = OutboxStatus.PENDING;
+
+    @Column(nullable = false)
+    private int attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    public enum OutboxStatus {
+        PENDING,     // 발송 대기 (재시도 포함)
+        SENDING,     // 발송기가 가져가 발송 중
+        SENT,        // 발송 완료
+        FAILED       // 최대 재시도 초과
+    }
+}
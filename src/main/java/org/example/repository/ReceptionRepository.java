@@ -1,17 +1,18 @@
 package org.example.repository;
 
 import org.example.model.Reception;
+import org.example.model.Reception.PriorityLane;
 import org.example.model.Reception.ReceptionStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
-import javax.persistence.LockModeType;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,6 +25,18 @@ public interface ReceptionRepository extends JpaRepository<Reception, Long> {
     
     List<Reception> findByStatusOrderByCalledAtAsc(ReceptionStatus status);
     
+    /**
+     * 목록 화면용 조회 (Patient 정보 포함, 대기 순서대로)
+     */
+    @Query("SELECT r FROM Reception r JOIN FETCH r.patient WHERE r.serviceDate = :serviceDate AND r.status = :status ORDER BY r.createdAt ASC, r.id ASC")
+    List<Reception> findByStatusWithPatientOrderByCreatedAtAsc(@Param("serviceDate") LocalDate serviceDate, @Param("status") ReceptionStatus status);
+    
+    /**
+     * CONFIRMED 대기열을 우선순위 레인이 반영된 호출 순서대로 조회 (Patient 정보 포함)
+     */
+    @Query("SELECT r FROM Reception r JOIN FETCH r.patient WHERE r.serviceDate = :serviceDate AND r.status = 'CONFIRMED' ORDER BY COALESCE(r.priorityAt, r.confirmedAt) ASC, r.id ASC")
+    List<Reception> findConfirmedWithPatientInQueueOrder(@Param("serviceDate") LocalDate serviceDate);
+    
     @Query("SELECT r FROM Reception r WHERE r.status = :status AND r.createdAt >= :startDate AND r.createdAt < :endDate ORDER BY r.confirmedAt ASC")
     List<Reception> findByStatusAndDateOrderByConfirmedAtAsc(@Param("status") ReceptionStatus status, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
     
@@ -34,18 +47,58 @@ public interface ReceptionRepository extends JpaRepository<Reception, Long> {
     int countConfirmedBefore(@Param("confirmedAt") LocalDateTime confirmedAt);
     
     /**
-     * 동시성 제어를 위한 락이 적용된 다음 호출 가능한 환자 조회
+     * 다음 호출 대상 한 건을 CONFIRMED에서 CALLED로 원자적으로 변경하고 접수 ID 반환
+     * 대상 행 하나만 잠그고, 다른 진료실이 잠근 행은 건너뛴다.
+     * 나머지 CONFIRMED 행의 확인 처리나 SMS 플래그 변경은 대기하지 않는다.
      */
-    @Lock(LockModeType.PESSIMISTIC_WRITE)
-    @Query("SELECT r FROM Reception r WHERE r.status = 'CONFIRMED' ORDER BY r.confirmedAt ASC")
-    List<Reception> findNextPatientToCallWithLock();
+    @Query(value = "UPDATE receptions SET status = 'CALLED', called_at = :calledAt, room_number = :roomNumber, version = version + 1 " +
+            "WHERE id = (SELECT id FROM receptions WHERE service_date = :serviceDate AND status = 'CONFIRMED' " +
+            "ORDER BY COALESCE(priority_at, confirmed_at) ASC, id ASC LIMIT 1 FOR UPDATE SKIP LOCKED) " +
+            "RETURNING id", nativeQuery = true)
+    Optional<Long> claimNextConfirmedReception(@Param("serviceDate") LocalDate serviceDate, @Param("calledAt") LocalDateTime calledAt, @Param("roomNumber") Integer roomNumber);
     
     /**
-     * 특정 접수의 상태를 원자적으로 CONFIRMED에서 CALLED로 변경
+     * PENDING 접수를 CONFIRMED로 변경 (읽은 시점의 버전과 상태가 그대로일 때만)
      */
-    @Modifying
-    @Query("UPDATE Reception r SET r.status = 'CALLED', r.calledAt = :calledAt WHERE r.id = :receptionId AND r.status = 'CONFIRMED'")
-    int updateStatusToCalledIfConfirmed(@Param("receptionId") Long receptionId, @Param("calledAt") LocalDateTime calledAt);
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Reception r SET r.status = :newStatus, r.confirmedAt = :confirmedAt, r.priorityAt = :priorityAt, r.version = r.version + 1 " +
+           "WHERE r.id = :id AND r.status = :expectedStatus AND r.version = :version")
+    int confirmIfUnchanged(@Param("id") Long id, @Param("version") Long version,
+                           @Param("expectedStatus") ReceptionStatus expectedStatus, @Param("newStatus") ReceptionStatus newStatus,
+                           @Param("confirmedAt") LocalDateTime confirmedAt, @Param("priorityAt") LocalDateTime priorityAt);
+    
+    /**
+     * CALLED 접수를 COMPLETED로 변경 (읽은 시점의 버전과 상태가 그대로일 때만)
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Reception r SET r.status = :newStatus, r.completedAt = :completedAt, r.version = r.version + 1 " +
+           "WHERE r.id = :id AND r.status = :expectedStatus AND r.version = :version")
+    int completeIfUnchanged(@Param("id") Long id, @Param("version") Long version,
+                            @Param("expectedStatus") ReceptionStatus expectedStatus, @Param("newStatus") ReceptionStatus newStatus,
+                            @Param("completedAt") LocalDateTime completedAt);
+    
+    /**
+     * 우선순위 레인 변경 (읽은 시점의 버전이 그대로일 때만, 순서 기준 시각도 함께 변경)
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Reception r SET r.priorityLane = :lane, r.priorityAt = :priorityAt, r.version = r.version + 1 " +
+           "WHERE r.id = :id AND r.version = :version")
+    int changeLaneIfUnchanged(@Param("id") Long id, @Param("version") Long version,
+                              @Param("lane") PriorityLane lane, @Param("priorityAt") LocalDateTime priorityAt);
+    
+    /**
+     * SMS 알림 설정 변경 (다른 컬럼은 건드리지 않음)
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Reception r SET r.smsNotificationEnabled = :enabled, r.version = r.version + 1 WHERE r.id = :id")
+    int updateSmsNotificationEnabled(@Param("id") Long id, @Param("enabled") Boolean enabled);
+    
+    /**
+     * SMS 발송 상태 초기화
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Reception r SET r.smsSent = false, r.version = r.version + 1 WHERE r.id = :id AND r.smsSent = true")
+    int resetSmsSent(@Param("id") Long id);
     
     @Query("SELECT COUNT(r) FROM Reception r WHERE r.createdAt >= :startDate AND r.createdAt < :endDate")
     long countByDate(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
@@ -56,6 +109,76 @@ public interface ReceptionRepository extends JpaRepository<Reception, Long> {
     @Query("SELECT COUNT(r) FROM Reception r WHERE r.isGuardian = true AND r.createdAt >= :startDate AND r.createdAt < :endDate")
     long countGuardianReceptionsByDate(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
     
+    /**
+     * 레인 설정 변경 시 해당 레인의 대기 순서 기준 시각 일괄 재계산
+     * @return 기준 시각이 바뀐 접수 ID
+     */
+    @Transactional
+    @Query(value = "UPDATE receptions SET priority_at = confirmed_at - make_interval(secs => :offsetSeconds), version = version + 1 " +
+            "WHERE service_date = :serviceDate AND status = 'CONFIRMED' AND COALESCE(priority_lane, 'NORMAL') = :lane " +
+            "RETURNING id", nativeQuery = true)
+    List<Long> updatePriorityAtForLane(@Param("serviceDate") LocalDate serviceDate, @Param("lane") String lane, @Param("offsetSeconds") long offsetSeconds);
+    
+    boolean existsByPatientIdAndStatus(Long patientId, ReceptionStatus status);
+    
+    /**
+     * 대기열 인덱스 재구성용 조회 (정렬 키에 필요한 컬럼만)
+     */
+    @Query("SELECT r.id AS id, r.status AS status, r.createdAt AS createdAt, r.confirmedAt AS confirmedAt, " +
+           "r.priorityAt AS priorityAt, r.calledAt AS calledAt, r.roomNumber AS roomNumber " +
+           "FROM Reception r WHERE r.serviceDate = :serviceDate AND r.status IN :statuses")
+    List<QueueEntryView> findActiveQueueEntries(@Param("serviceDate") LocalDate serviceDate, @Param("statuses") Collection<ReceptionStatus> statuses);
+    
+    /**
+     * 지정한 접수들의 정렬 키 조회 (레인 설정 변경 후 인덱스 키 갱신용)
+     */
+    @Query("SELECT r.id AS id, r.status AS status, r.createdAt AS createdAt, r.confirmedAt AS confirmedAt, " +
+           "r.priorityAt AS priorityAt, r.calledAt AS calledAt, r.roomNumber AS roomNumber " +
+           "FROM Reception r WHERE r.id IN :ids")
+    List<QueueEntryView> findQueueEntriesByIds(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * 접수별 환자 이름 조회 (대기 현황판 표시용)
+     */
+    @Query("SELECT r.id AS id, p.name AS patientName FROM Reception r JOIN r.patient p WHERE r.id IN :ids")
+    List<PatientNameView> findPatientNamesByIds(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * 지난 진료일의 미처리 접수를 한 배치씩 CLOSED로 마감
+     * 진료일이 비어 있는 기존 데이터는 접수 일자를 진료일로 채운다.
+     * 다른 요청이 잠근 행은 건너뛴다 (남은 행은 closeStaleReceptionsWaiting으로 마감).
+     * @return 마감된 접수 ID
+     */
+    @Transactional
+    @Query(value = "UPDATE receptions SET status = 'CLOSED', service_date = COALESCE(service_date, CAST(created_at AS date)), version = version + 1 " +
+            "WHERE id IN (SELECT id FROM receptions WHERE status IN ('PENDING', 'CONFIRMED', 'CALLED') " +
+            "AND COALESCE(service_date, CAST(created_at AS date)) < :serviceDate " +
+            "LIMIT :batchSize FOR UPDATE SKIP LOCKED) " +
+            "RETURNING id", nativeQuery = true)
+    List<Long> closeStaleReceptions(@Param("serviceDate") LocalDate serviceDate, @Param("batchSize") int batchSize);
+    
+    /**
+     * closeStaleReceptions와 같지만 잠긴 행은 잠금이 풀릴 때까지 기다린다
+     * 잠금을 잡고 있던 요청이 상태를 바꿨다면 잠금이 풀린 뒤 조건을 다시 확인하므로 마감 대상에서 빠진다.
+     * @return 마감된 접수 ID
+     */
+    @Transactional
+    @Query(value = "UPDATE receptions SET status = 'CLOSED', service_date = COALESCE(service_date, CAST(created_at AS date)), version = version + 1 " +
+            "WHERE id IN (SELECT id FROM receptions WHERE status IN ('PENDING', 'CONFIRMED', 'CALLED') " +
+            "AND COALESCE(service_date, CAST(created_at AS date)) < :serviceDate " +
+            "LIMIT :batchSize FOR UPDATE) " +
+            "RETURNING id", nativeQuery = true)
+    List<Long> closeStaleReceptionsWaiting(@Param("serviceDate") LocalDate serviceDate, @Param("batchSize") int batchSize);
+    
+    /**
+     * 진료일이 비어 있는 기존 데이터를 한 배치씩 접수 일자로 채움
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE receptions SET service_date = CAST(created_at AS date), version = version + 1 " +
+            "WHERE id IN (SELECT id FROM receptions WHERE service_date IS NULL LIMIT :batchSize FOR UPDATE SKIP LOCKED)", nativeQuery = true)
+    int backfillServiceDate(@Param("batchSize") int batchSize);
+    
     // 간호사용 통계를 위한 메서드들
     List<Reception> findByCreatedAtBetween(LocalDateTime startDate, LocalDateTime endDate);
     
@@ -83,6 +206,24 @@ public interface ReceptionRepository extends JpaRepository<Reception, Long> {
     @Query("SELECT r FROM Reception r WHERE r.status = 'CALLED' ORDER BY r.calledAt DESC")
     List<Reception> findCalledReceptions();
     
+    /**
+     * 당일 호출된 환자 목록 조회 (Patient 정보 포함)
+     */
+    @Query("SELECT r FROM Reception r JOIN FETCH r.patient WHERE r.serviceDate = :serviceDate AND r.status = 'CALLED' ORDER BY r.calledAt DESC")
+    List<Reception> findCalledReceptionsByServiceDate(@Param("serviceDate") LocalDate serviceDate);
+    
+    /**
+     * 진료실별 호출된 환자 수 (진료실 번호가 없는 기존 데이터는 1번 진료실로 간주)
+     */
+    @Query("SELECT COUNT(r) FROM Reception r WHERE r.serviceDate = :serviceDate AND r.status = 'CALLED' AND COALESCE(r.roomNumber, 1) = :roomNumber")
+    int countCalledReceptionsByRoom(@Param("serviceDate") LocalDate serviceDate, @Param("roomNumber") Integer roomNumber);
+    
+    /**
+     * 진료실별 호출된 환자 목록 조회
+     */
+    @Query("SELECT r FROM Reception r JOIN FETCH r.patient WHERE r.serviceDate = :serviceDate AND r.status = 'CALLED' AND COALESCE(r.roomNumber, 1) = :roomNumber ORDER BY r.calledAt DESC")
+    List<Reception> findCalledReceptionsByRoom(@Param("serviceDate") LocalDate serviceDate, @Param("roomNumber") Integer roomNumber);
+    
     /**
      * 특정 상태의 접수 개수 조회
      */
@@ -94,9 +235,30 @@ public interface ReceptionRepository extends JpaRepository<Reception, Long> {
     @Query("SELECT r FROM Reception r JOIN FETCH r.patient WHERE r.id = :id")
     Optional<Reception> findByIdWithPatient(@Param("id") Long id);
     
+    /**
+     * 접수 접근 토큰 조회 (환자 개인 알림 연결 확인용)
+     */
+    @Query("SELECT r.accessToken FROM Reception r WHERE r.id = :id")
+    Optional<String> findAccessTokenById(@Param("id") Long id);
+    
     /**
      * 날짜 범위 내 접수 조회 (Patient 정보 포함)
      */
     @Query("SELECT r FROM Reception r JOIN FETCH r.patient WHERE r.createdAt BETWEEN :startDate AND :endDate")
     List<Reception> findByCreatedAtBetweenWithPatient(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+    
+    interface QueueEntryView {
+        Long getId();
+        ReceptionStatus getStatus();
+        LocalDateTime getCreatedAt();
+        LocalDateTime getConfirmedAt();
+        LocalDateTime getPriorityAt();
+        LocalDateTime getCalledAt();
+        Integer getRoomNumber();
+    }
+    
+    interface PatientNameView {
+        Long getId();
+        String getPatientName();
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,28 @@
+package org.example.repository;
+
+import org.example.model.RuntimeSetting;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface RuntimeSettingRepository extends JpaRepository<RuntimeSetting, String> {
+    
+    /**
+     * 설정 저장 (없으면 추가, 값이 다를 때만 version 증가)
+     * @return 추가되거나 값이 바뀌면 1, 같은 값이면 0
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO runtime_settings (setting_key, setting_value, version, updated_at) " +
+            "VALUES (:key, :value, 1, :now) " +
+            "ON CONFLICT (setting_key) DO UPDATE SET setting_value = EXCLUDED.setting_value, " +
+            "version = runtime_settings.version + 1, updated_at = EXCLUDED.updated_at " +
+            "WHERE runtime_settings.setting_value <> EXCLUDED.setting_value", nativeQuery = true)
+    int upsert(@Param("key") String key, @Param("value") String value, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,90 @@
+package org.example.repository;
+
+import org.example.model.SmsOutbox;
+import org.example.model.SmsOutbox.OutboxStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SmsOutboxRepository extends JpaRepository<SmsOutbox, Long> {
+    
+    /**
+     * 발송 요청 등록 (같은 키가 이미 있으면 무시)
+     * @return 새로 등록되면 1, 이미 등록된 알림이면 0
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO sms_outbox (idempotency_key, reception_id, phone_number, patient_name, message_text, status, attempts, next_attempt_at, created_at, updated_at) " +
+            "VALUES (:idempotencyKey, :receptionId, :phoneNumber, :patientName, :messageText, 'PENDING', 0, :now, :now, :now) " +
+            "ON CONFLICT (idempotency_key) DO NOTHING", nativeQuery = true)
+    int enqueue(@Param("idempotencyKey") String idempotencyKey, @Param("receptionId") Long receptionId,
+                @Param("phoneNumber") String phoneNumber, @Param("patientName") String patientName,
+                @Param("messageText") String messageText, @Param("now") LocalDateTime now);
+    
+    /**
+     * 발송 시각이 된 요청을 한 배치 가져가며 SENDING으로 변경하고 ID 반환
+     * 다른 발송기가 잡은 행은 건너뛴다.
+     */
+    @Transactional
+    @Query(value = "UPDATE sms_outbox SET status = 'SENDING', attempts = attempts + 1, updated_at = :now " +
+            "WHERE id IN (SELECT id FROM sms_outbox WHERE status = 'PENDING' AND next_attempt_at <= :now " +
+            "ORDER BY next_attempt_at ASC, id ASC LIMIT :batchSize FOR UPDATE SKIP LOCKED) " +
+            "RETURNING id", nativeQuery = true)
+    List<Long> claimDue(@Param("now") LocalDateTime now, @Param("batchSize") int batchSize);
+    
+    /**
+     * 발송 완료 표시와 함께 해당 접수의 SMS 발송 여부(sms_sent)를 한 문장으로 갱신
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "WITH sent AS (UPDATE sms_outbox SET status = 'SENT', sent_at = :now, updated_at = :now, last_error = NULL " +
+            "WHERE id IN (:ids) AND status = 'SENDING' RETURNING reception_id) " +
+            "UPDATE receptions SET sms_sent = true, version = version + 1 " +
+            "WHERE id IN (SELECT reception_id FROM sent) AND (sms_sent IS NULL OR sms_sent = false)", nativeQuery = true)
+    int markSent(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+    
+    /**
+     * 실패한 요청을 다시 발송 대기로 돌림 (백오프 후 재시도)
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE SmsOutbox o SET o.status = 'PENDING', o.nextAttemptAt = :nextAttemptAt, o.lastError = :error, o.updatedAt = :now " +
+           "WHERE o.id = :id AND o.status = 'SENDING'")
+    int markRetry(@Param("id") Long id, @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                  @Param("error") String error, @Param("now") LocalDateTime now);
+    
+    /**
+     * 시도하지 못한 요청을 발송 대기로 되돌림 (가져갈 때 올린 시도 횟수를 되돌리고 백오프 없이 다음 조회 대상)
+     * 제공자 차단 중이거나 작업 큐가 가득 차 제공자를 호출하지 않은 경우에 사용한다.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE SmsOutbox o SET o.status = 'PENDING', o.attempts = o.attempts - 1, o.updatedAt = :now " +
+           "WHERE o.id IN (:ids) AND o.status = 'SENDING'")
+    int release(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+    
+    @Transactional
+    @Modifying
+    @Query("UPDATE SmsOutbox o SET o.status = 'FAILED', o.lastError = :error, o.updatedAt = :now " +
+           "WHERE o.id = :id AND o.status = 'SENDING'")
+    int markFailed(@Param("id") Long id, @Param("error") String error, @Param("now") LocalDateTime now);
+    
+    /**
+     * 발송 중 서버가 종료되어 SENDING에 남은 요청을 다시 발송 대기로 돌림
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE SmsOutbox o SET o.status = 'PENDING', o.nextAttemptAt = :now, o.updatedAt = :now " +
+           "WHERE o.status = 'SENDING' AND o.updatedAt < :staleBefore")
+    int recoverStale(@Param("staleBefore") LocalDateTime staleBefore, @Param("now") LocalDateTime now);
+    
+    long countByStatus(OutboxStatus status);
+}
@@ -0,0 +1,56 @@
+package org.example.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 트랜잭션 커밋 후 부수 작업 실행기
+ * 알림 전송, SMS 발송처럼 DB 커밋 이후에만 의미가 있는 작업을 커밋이 끝난 뒤 실행하고,
+ * 롤백되면 실행하지 않는다. 트랜잭션 밖에서 호출되면 바로 실행한다.
+ */
+@Component
+@Slf4j
+public class AfterCommitExecutor {
+
+    private final TaskExecutor sideEffectExecutor;
+
+    public AfterCommitExecutor(@Qualifier("sideEffectExecutor") TaskExecutor sideEffectExecutor) {
+        this.sideEffectExecutor = sideEffectExecutor;
+    }
+
+    /**
+     * 커밋 후 별도 스레드에서 실행 (요청 스레드는 커밋 직후 바로 반환)
+     */
+    public void executeAsync(Runnable task) {
+        afterCommit(() -> sideEffectExecutor.execute(() -> run(task)));
+    }
+
+    /**
+     * 커밋 후 현재 스레드에서 실행 (순서가 중요하고 가벼운 작업용)
+     */
+    public void afterCommit(Runnable task) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()
+                && TransactionSynchronizationManager.isActualTransactionActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    run(task);
+                }
+            });
+        } else {
+            run(task);
+        }
+    }
+
+    private void run(Runnable task) {
+        try {
+            task.run();
+        } catch (Exception e) {
+            log.error("커밋 후 작업 실행 실패: {}", e.getMessage(), e);
+        }
+    }
+}
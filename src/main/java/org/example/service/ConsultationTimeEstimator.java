@@ -0,0 +1,88 @@
+package org.example.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.config.QueueConfig;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 예상 대기 시간 추정기
+ * 진료 완료 이벤트마다 진료실·시간대별 진료 시간(calledAt -> completedAt)의 지수 가중 평균을 갱신하고,
+ * 시간대별 전체 처리율을 미리 계산해 두어 환자별 예상 대기 시간을 O(1)로 계산한다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ConsultationTimeEstimator {
+
+    private static final int HOURS = 24;
+    // 4시간 이상 걸린 진료는 완료 처리 누락으로 보고 제외
+    private static final double MAX_CONSULTATION_MINUTES = 240;
+
+    private final QueueConfig queueConfig;
+
+    // (진료실, 시간대)별 평균 진료 시간(분)
+    private final ConcurrentHashMap<Long, Double> averageMinutes = new ConcurrentHashMap<>();
+    // 시간대별 전체 진료실의 분당 처리 인원
+    private final double[] throughputPerHour = new double[HOURS];
+
+    /**
+     * 진료 완료 시 진료 시간 반영
+     */
+    public void recordConsultation(Integer roomNumber, LocalDateTime calledAt, LocalDateTime completedAt) {
+        if (calledAt == null || completedAt == null) {
+            return;
+        }
+        double minutes = Duration.between(calledAt, completedAt).getSeconds() / 60.0;
+        if (minutes <= 0 || minutes > MAX_CONSULTATION_MINUTES) {
+            log.debug("진료 시간 추정에서 제외: {}분", minutes);
+            return;
+        }
+
+        int room = roomNumber != null ? roomNumber : 1;
+        int hour = calledAt.getHour();
+        double alpha = queueConfig.getEstimatorAlpha();
+        averageMinutes.merge(cellKey(room, hour), minutes,
+            (previous, sample) -> previous + alpha * (sample - previous));
+
+        synchronized (throughputPerHour) {
+            throughputPerHour[hour] = computeThroughput(hour);
+        }
+        log.debug("진료 시간 반영: {}번 진료실 {}시, {}분", room, hour, String.format("%.1f", minutes));
+    }
+
+    /**
+     * 앞에 대기 중인 인원 기준 예상 대기 시간(분)
+     */
+    public int estimateWaitMinutes(int waitingPosition) {
+        if (waitingPosition <= 1) {
+            return 0;
+        }
+        int hour = LocalDateTime.now().getHour();
+        double throughput;
+        synchronized (throughputPerHour) {
+            throughput = throughputPerHour[hour];
+        }
+        if (throughput <= 0) {
+            throughput = queueConfig.getRooms() / queueConfig.getDefaultConsultationMinutes();
+        }
+        return (int) Math.ceil((waitingPosition - 1) / throughput);
+    }
+
+    private double computeThroughput(int hour) {
+        double throughput = 0;
+        for (int room = 1; room <= queueConfig.getRooms(); room++) {
+            Double minutes = averageMinutes.get(cellKey(room, hour));
+            throughput += 1.0 / (minutes != null ? minutes : queueConfig.getDefaultConsultationMinutes());
+        }
+        return throughput;
+    }
+
+    private static long cellKey(int room, int hour) {
+        return (long) room * HOURS + hour;
+    }
+}
@@ -0,0 +1,227 @@
+package org.example.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.config.QueueConfig;
+import org.example.dto.DisplayBoardRow;
+import org.example.repository.ReceptionRepository;
+import org.example.repository.ReceptionRepository.PatientNameView;
+import org.example.service.RealtimeNotificationService.QueueChanged;
+import org.example.service.WaitingQueueIndex.QueueKey;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 대기 현황판 (로비 TV) 서비스
+ * 대기열 앞쪽 N명과 진료실별 호출 환자를 서버에서 한 번 계산해 두고,
+ * 대기열이 바뀌면 달라진 행만 /topic/display-board로 전송한다.
+ * 현황판이 몇 대이든 변경 한 번에 계산 한 번으로 끝나며, 화면은 처음 연결할 때만 전체를 조회한다.
+ */
+@Service
+@Slf4j
+public class DisplayBoardService {
+
+    private final WaitingQueueIndex waitingQueueIndex;
+    private final ReceptionRepository receptionRepository;
+    private final RealtimeNotificationService realtimeNotificationService;
+    private final QueueConfig queueConfig;
+    private final TaskExecutor sideEffectExecutor;
+
+    // 접수 ID -> 가린 이름 (현황판에 보이는 접수만 유지)
+    private final Map<Long, String> maskedNames = new HashMap<>();
+
+    private List<DisplayBoardRow> rows = Collections.emptyList();
+    private List<DisplayBoardRow> calls = Collections.emptyList();
+    private int waitingCount;
+    private long version;
+
+    public DisplayBoardService(WaitingQueueIndex waitingQueueIndex,
+                               ReceptionRepository receptionRepository,
+                               RealtimeNotificationService realtimeNotificationService,
+                               QueueConfig queueConfig,
+                               @Qualifier("sideEffectExecutor") TaskExecutor sideEffectExecutor) {
+        this.waitingQueueIndex = waitingQueueIndex;
+        this.receptionRepository = receptionRepository;
+        this.realtimeNotificationService = realtimeNotificationService;
+        this.queueConfig = queueConfig;
+        this.sideEffectExecutor = sideEffectExecutor;
+    }
+
+    /**
+     * 대기열 알림이 전송될 때마다 현황판 갱신
+     */
+    @EventListener
+    public void onQueueChanged(QueueChanged event) {
+        sideEffectExecutor.execute(() -> {
+            try {
+                refresh(true);
+            } catch (Exception e) {
+                log.error("대기 현황판 갱신 실패: {}", e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * 현황판 전체 조회 (화면 최초 연결 또는 순번이 끊겼을 때)
+     */
+    public synchronized Map<String, Object> getSnapshot() {
+        if (version == 0) {
+            refresh(false);
+        }
+        Map<String, Object> snapshot = new HashMap<>();
+        snapshot.put("type", "BOARD_SNAPSHOT");
+        snapshot.put("version", version);
+        snapshot.put("rows", rows);
+        snapshot.put("calls", calls);
+        snapshot.put("waitingCount", waitingCount);
+        return snapshot;
+    }
+
+    /**
+     * 현재 대기열로 현황판을 다시 계산하고, 달라진 행이 있으면 변경분을 전송
+     */
+    private synchronized void refresh(boolean broadcast) {
+        int size = Math.max(queueConfig.getDisplayBoardSize(), 0);
+        List<QueueKey> head = waitingQueueIndex.head(size);
+        List<QueueKey> called = latestCallPerRoom(waitingQueueIndex.called());
+        int newWaitingCount = waitingQueueIndex.getConfirmedCount() + waitingQueueIndex.getPendingCount();
+        resolveNames(head, called);
+
+        List<DisplayBoardRow> newRows = new ArrayList<>(head.size());
+        for (int i = 0; i < head.size(); i++) {
+            QueueKey key = head.get(i);
+            newRows.add(DisplayBoardRow.builder()
+                .receptionId(key.getId())
+                .position(i + 1)
+                .name(maskedNames.get(key.getId()))
+                .status(key.getStatus())
+                .build());
+        }
+        List<DisplayBoardRow> newCalls = new ArrayList<>(called.size());
+        for (QueueKey key : called) {
+            newCalls.add(DisplayBoardRow.builder()
+                .receptionId(key.getId())
+                .name(maskedNames.get(key.getId()))
+                .status(key.getStatus())
+                .roomNumber(key.getRoomNumber())
+                .calledAt(key.getTime())
+                .build());
+        }
+
+        List<DisplayBoardRow> changedRows = new ArrayList<>();
+        for (int i = 0; i < newRows.size(); i++) {
+            if (i >= rows.size() || !rows.get(i).equals(newRows.get(i))) {
+                changedRows.add(newRows.get(i));
+            }
+        }
+        boolean callsChanged = !calls.equals(newCalls);
+        if (version > 0 && changedRows.isEmpty() && newRows.size() == rows.size()
+                && !callsChanged && newWaitingCount == waitingCount) {
+            return;
+        }
+
+        rows = newRows;
+        calls = newCalls;
+        waitingCount = newWaitingCount;
+        version++;
+        evictNames(head, called);
+
+        if (!broadcast) {
+            return;
+        }
+        Map<String, Object> message = new HashMap<>();
+        message.put("type", "BOARD_DELTA");
+        message.put("version", version);
+        message.put("size", newRows.size());
+        message.put("rows", changedRows);
+        if (callsChanged) {
+            message.put("calls", newCalls);
+        }
+        message.put("waitingCount", newWaitingCount);
+        realtimeNotificationService.notifyDisplayBoard(message);
+    }
+
+    /**
+     * 진료실마다 가장 최근에 호출된 접수만 남김 (진료실 번호 순)
+     */
+    private List<QueueKey> latestCallPerRoom(List<QueueKey> called) {
+        Map<Integer, QueueKey> latest = new HashMap<>();
+        for (QueueKey key : called) {
+            QueueKey current = latest.get(key.getRoomNumber());
+            if (current == null || key.getTime().isAfter(current.getTime())) {
+                latest.put(key.getRoomNumber(), key);
+            }
+        }
+        List<QueueKey> result = new ArrayList<>(latest.values());
+        result.sort(Comparator.comparing(QueueKey::getRoomNumber, Comparator.nullsLast(Comparator.naturalOrder())));
+        return result;
+    }
+
+    /**
+     * 처음 보이는 접수의 이름만 한 번에 조회
+     */
+    private void resolveNames(List<QueueKey> head, List<QueueKey> called) {
+        Set<Long> missing = new HashSet<>();
+        for (QueueKey key : head) {
+            if (!maskedNames.containsKey(key.getId())) {
+                missing.add(key.getId());
+            }
+        }
+        for (QueueKey key : called) {
+            if (!maskedNames.containsKey(key.getId())) {
+                missing.add(key.getId());
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        for (PatientNameView view : receptionRepository.findPatientNamesByIds(missing)) {
+            maskedNames.put(view.getId(), maskName(view.getPatientName()));
+        }
+    }
+
+    private void evictNames(List<QueueKey> head, List<QueueKey> called) {
+        Set<Long> visible = new HashSet<>();
+        for (QueueKey key : head) {
+            visible.add(key.getId());
+        }
+        for (QueueKey key : called) {
+            visible.add(key.getId());
+        }
+        maskedNames.keySet().retainAll(visible);
+    }
+
+    /**
+     * 이름 가리기: 두 글자는 뒷글자, 세 글자 이상은 처음과 끝을 제외한 글자를 *로 표시
+     */
+    static String maskName(String name) {
+        if (name == null || name.trim().isEmpty()) {
+            return "";
+        }
+        String trimmed = name.trim();
+        int length = trimmed.length();
+        if (length == 1) {
+            return trimmed;
+        }
+        if (length == 2) {
+            return trimmed.charAt(0) + "*";
+        }
+        StringBuilder masked = new StringBuilder(length);
+        masked.append(trimmed.charAt(0));
+        for (int i = 1; i < length - 1; i++) {
+            masked.append('*');
+        }
+        masked.append(trimmed.charAt(length - 1));
+        return masked.toString();
+    }
+}
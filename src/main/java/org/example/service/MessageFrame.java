@@ -0,0 +1,51 @@
+package org.example.service;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 미리 직렬화된 알림 메시지
+ * 이벤트당 한 번만 JSON으로 변환하고, 같은 바이트 배열을 모든 구독자(WebSocket, SSE)에게 그대로 전달한다.
+ * 생성 후 내용은 바뀌지 않으며 바이트 배열은 외부에서 수정하지 않는다.
+ */
+public final class MessageFrame {
+
+    private final byte[] payload;
+    private volatile String text;
+
+    MessageFrame(byte[] payload) {
+        this.payload = payload;
+    }
+
+    public int getSize() {
+        return payload.length;
+    }
+
+    /**
+     * SSE 전송용 문자열 (처음 요청될 때 한 번만 만든다)
+     */
+    public String getText() {
+        String result = text;
+        if (result == null) {
+            result = new String(payload, StandardCharsets.UTF_8);
+            text = result;
+        }
+        return result;
+    }
+
+    /**
+     * STOMP 전송용 메시지
+     * 목적지 헤더는 전송 시 채워지므로 전송할 때마다 새 헤더로 만들고 본문만 공유한다.
+     */
+    public Message<byte[]> toMessage() {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(payload, accessor.getMessageHeaders());
+    }
+}
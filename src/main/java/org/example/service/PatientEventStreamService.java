@@ -0,0 +1,178 @@
+package org.example.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.config.WebSocketProperties;
+import org.example.dto.WaitingStatusResponse;
+import org.example.service.RealtimeNotificationService.PatientNotification;
+import org.example.service.RealtimeNotificationService.QueueChanged;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 환자 대기 현황 SSE 스트림
+ * WebSocket을 쓰기 어려운 환경을 위한 대체 채널로, 접수별로 순번 변경과 호출 알림을 전송한다.
+ * 비동기 서블릿으로 처리되므로 연결마다 스레드를 점유하지 않는다.
+ */
+@Service
+@Slf4j
+public class PatientEventStreamService {
+
+    private final WaitingQueueIndex waitingQueueIndex;
+    private final ConsultationTimeEstimator consultationTimeEstimator;
+    private final WebSocketProperties webSocketProperties;
+    private final TaskExecutor sideEffectExecutor;
+    private final RealtimeMessageEncoder messageEncoder;
+
+    private final Map<Long, List<StreamClient>> clientsByReception = new ConcurrentHashMap<>();
+    private final AtomicInteger clientCount = new AtomicInteger();
+
+    public PatientEventStreamService(WaitingQueueIndex waitingQueueIndex,
+                                     ConsultationTimeEstimator consultationTimeEstimator,
+                                     WebSocketProperties webSocketProperties,
+                                     @Qualifier("sideEffectExecutor") TaskExecutor sideEffectExecutor,
+                                     RealtimeMessageEncoder messageEncoder) {
+        this.waitingQueueIndex = waitingQueueIndex;
+        this.consultationTimeEstimator = consultationTimeEstimator;
+        this.webSocketProperties = webSocketProperties;
+        this.sideEffectExecutor = sideEffectExecutor;
+        this.messageEncoder = messageEncoder;
+    }
+
+    /**
+     * 스트림 연결 (연결 직후 현재 대기 현황을 status 이벤트로 전송)
+     * @return 연결 수 상한을 넘으면 null
+     */
+    public SseEmitter open(Long receptionId, WaitingStatusResponse initialStatus) {
+        if (clientCount.incrementAndGet() > webSocketProperties.getMaxPatientSessions()) {
+            clientCount.decrementAndGet();
+            log.warn("SSE 연결 수 상한 초과로 연결 거부: 접수 ID {}", receptionId);
+            return null;
+        }
+
+        SseEmitter emitter = new SseEmitter(webSocketProperties.getSseTimeoutMs());
+        StreamClient client = new StreamClient(emitter, initialStatus.getWaitingPosition(), initialStatus.getTotalWaiting());
+        clientsByReception.computeIfAbsent(receptionId, id -> new CopyOnWriteArrayList<>()).add(client);
+
+        emitter.onCompletion(() -> remove(receptionId, client));
+        emitter.onTimeout(() -> remove(receptionId, client));
+        emitter.onError(e -> remove(receptionId, client));
+
+        send(receptionId, client, SseEmitter.event().name("status").data(initialStatus));
+        log.debug("SSE 연결: 접수 ID {} (전체 {}개)", receptionId, clientCount.get());
+        return emitter;
+    }
+
+    /**
+     * 대기열이 바뀌면 연결된 환자별로 순번을 다시 계산하여 달라진 경우에만 전송
+     */
+    @EventListener
+    public void onQueueChanged(QueueChanged event) {
+        if (!clientsByReception.isEmpty()) {
+            sideEffectExecutor.execute(this::pushRanks);
+        }
+    }
+
+    /**
+     * 환자 개인 알림 (상태 변경, 의사 호출)
+     */
+    @EventListener
+    public void onPatientNotification(PatientNotification notification) {
+        List<StreamClient> clients = clientsByReception.get(notification.getReceptionId());
+        if (clients == null) {
+            return;
+        }
+        // WebSocket 전송에 쓴 직렬화 결과를 그대로 재사용
+        String data = notification.getFrame().getText();
+        sideEffectExecutor.execute(() -> {
+            for (StreamClient client : clients) {
+                send(notification.getReceptionId(), client, SseEmitter.event().name(notification.getType()).data(data));
+            }
+        });
+    }
+
+    /**
+     * 프록시나 통신사 망에서 유휴 연결이 끊기지 않도록 주기적으로 주석 전송
+     */
+    @Scheduled(fixedDelayString = "${websocket.sse-heartbeat-ms:20000}")
+    public void sendHeartbeat() {
+        for (Map.Entry<Long, List<StreamClient>> entry : clientsByReception.entrySet()) {
+            for (StreamClient client : entry.getValue()) {
+                send(entry.getKey(), client, SseEmitter.event().comment("keepalive"));
+            }
+        }
+    }
+
+    public int getClientCount() {
+        return clientCount.get();
+    }
+
+    private void pushRanks() {
+        int totalWaiting = waitingQueueIndex.getConfirmedCount();
+        for (Map.Entry<Long, List<StreamClient>> entry : clientsByReception.entrySet()) {
+            int position = waitingQueueIndex.getWaitingPosition(entry.getKey());
+            String rank = null; // 같은 접수의 연결들은 같은 내용을 받으므로 한 번만 만든다
+            for (StreamClient client : entry.getValue()) {
+                synchronized (client) {
+                    if (client.lastPosition == position && client.lastTotal == totalWaiting) {
+                        continue;
+                    }
+                    client.lastPosition = position;
+                    client.lastTotal = totalWaiting;
+                }
+                if (rank == null) {
+                    Map<String, Object> data = new HashMap<>();
+                    data.put("waitingPosition", position);
+                    data.put("totalWaiting", totalWaiting);
+                    data.put("estimatedWaitMinutes", consultationTimeEstimator.estimateWaitMinutes(position));
+                    rank = messageEncoder.encode(data).getText();
+                }
+                send(entry.getKey(), client, SseEmitter.event().name("rank").data(rank));
+            }
+        }
+    }
+
+    private void send(Long receptionId, StreamClient client, SseEmitter.SseEventBuilder event) {
+        try {
+            synchronized (client) {
+                client.emitter.send(event);
+            }
+        } catch (IOException | IllegalStateException e) {
+            // 연결이 끊긴 클라이언트
+            remove(receptionId, client);
+        }
+    }
+
+    private void remove(Long receptionId, StreamClient client) {
+        List<StreamClient> clients = clientsByReception.get(receptionId);
+        if (clients != null && clients.remove(client)) {
+            clientCount.decrementAndGet();
+            if (clients.isEmpty()) {
+                clientsByReception.remove(receptionId, clients);
+            }
+        }
+    }
+
+    private static final class StreamClient {
+        final SseEmitter emitter;
+        int lastPosition;
+        int lastTotal;
+
+        StreamClient(SseEmitter emitter, int lastPosition, int lastTotal) {
+            this.emitter = emitter;
+            this.lastPosition = lastPosition;
+            this.lastTotal = lastTotal;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package org.example.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.config.WebSocketProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.security.Principal;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 환자 WebSocket 세션 등록부
+ * STOMP 연결 시 전달된 접수 ID로 세션을 등록하여, 환자별 알림을 접수 ID 한 번 조회로 보낼 수 있게 한다.
+ * 등록 가능한 세션 수에 상한을 두고, 연결이 끊기면 바로 제거한다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PatientSessionRegistry {
+
+    private static final String PRINCIPAL_PREFIX = "reception-";
+
+    private final Map<Long, Set<String>> sessionsByReception = new ConcurrentHashMap<>();
+    private final Map<String, Long> receptionBySession = new ConcurrentHashMap<>();
+
+    private final WebSocketProperties webSocketProperties;
+
+    /**
+     * 세션 등록
+     * @return 상한을 넘어 등록하지 못하면 false
+     */
+    public boolean register(String sessionId, Long receptionId) {
+        int maxSessions = webSocketProperties.getMaxPatientSessions();
+        synchronized (this) {
+            if (!receptionBySession.containsKey(sessionId) && receptionBySession.size() >= maxSessions) {
+                log.warn("환자 세션 수 상한 초과로 연결 거부: 접수 ID {} (상한 {})", receptionId, maxSessions);
+                return false;
+            }
+            unregister(sessionId);
+            receptionBySession.put(sessionId, receptionId);
+            sessionsByReception.computeIfAbsent(receptionId, id -> ConcurrentHashMap.newKeySet()).add(sessionId);
+        }
+        log.debug("환자 세션 등록: 접수 ID {}, 세션 {}", receptionId, sessionId);
+        return true;
+    }
+
+    /**
+     * 세션 제거 (연결 종료 시)
+     */
+    public void unregister(String sessionId) {
+        synchronized (this) {
+            Long receptionId = receptionBySession.remove(sessionId);
+            if (receptionId == null) {
+                return;
+            }
+            Set<String> sessions = sessionsByReception.get(receptionId);
+            if (sessions != null) {
+                sessions.remove(sessionId);
+                if (sessions.isEmpty()) {
+                    sessionsByReception.remove(receptionId);
+                }
+            }
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        unregister(event.getSessionId());
+    }
+
+    /**
+     * 해당 접수로 연결된 세션이 있는지 확인
+     */
+    public boolean isConnected(Long receptionId) {
+        return sessionsByReception.containsKey(receptionId);
+    }
+
+    public Set<String> getSessions(Long receptionId) {
+        Set<String> sessions = sessionsByReception.get(receptionId);
+        return sessions != null ? Collections.unmodifiableSet(sessions) : Collections.emptySet();
+    }
+
+    public int getSessionCount() {
+        return receptionBySession.size();
+    }
+
+    /**
+     * 환자 세션의 사용자 이름 (사용자 목적지 /user/{name}/queue/... 해석에 사용)
+     */
+    public static String principalName(Long receptionId) {
+        return PRINCIPAL_PREFIX + receptionId;
+    }
+
+    public static Principal principalOf(Long receptionId) {
+        String name = principalName(receptionId);
+        return () -> name;
+    }
+}
@@ -0,0 +1,68 @@
+package org.example.service;
+
+import org.example.config.QueueConfig;
+import org.example.dto.QueueDeltaEvent;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 최근 대기열 이벤트 기록 (고정 크기 링 버퍼)
+ * 순번(seq)을 슬롯 위치로 사용하며, 재연결한 클라이언트가 "since 이후 이벤트"를 요청하면
+ * 버퍼에 남아 있는 범위는 그대로 다시 보내고, 밀려났거나 전체 갱신 이전이면 전체 조회를 안내한다.
+ * 순번은 재시작 후에도 이전보다 커지므로, 이전 실행의 순번으로 요청하면 전체 갱신 이전으로 보고 전체 조회를 안내한다.
+ */
+@Component
+public class QueueEventLog {
+
+    private final QueueDeltaEvent[] slots;
+
+    private long resetSeq; // 마지막 전체 갱신 순번 (이전 이벤트는 다시 보낼 수 없음)
+    private long headSeq; // 지금까지 기록된 가장 큰 순번
+
+    public QueueEventLog(QueueConfig queueConfig) {
+        this.slots = new QueueDeltaEvent[Math.max(queueConfig.getEventLogCapacity(), 1)];
+    }
+
+    public synchronized long getHeadSeq() {
+        return headSeq;
+    }
+
+    public synchronized void append(QueueDeltaEvent event) {
+        slots[slotOf(event.getSeq())] = event;
+        headSeq = Math.max(headSeq, event.getSeq());
+    }
+
+    /**
+     * 전체 갱신 기록 (이 순번 이전 이벤트는 더 이상 다시 보내지 않는다)
+     */
+    public synchronized void reset(long seq) {
+        resetSeq = seq;
+        headSeq = Math.max(headSeq, seq);
+    }
+
+    /**
+     * since 다음 순번부터 끊김 없이 이어지는 이벤트 목록
+     * 순번은 기록 시점에 1씩 붙으므로 밀려난 슬롯이 없으면 headSeq까지 모두 이어진다.
+     * @return 다시 보낼 수 없으면(밀려남, 전체 갱신 이전) null
+     */
+    public synchronized List<QueueDeltaEvent> since(long since) {
+        if (since < resetSeq || since > headSeq || headSeq - since > slots.length) {
+            return null;
+        }
+        List<QueueDeltaEvent> events = new ArrayList<>((int) (headSeq - since));
+        for (long seq = since + 1; seq <= headSeq; seq++) {
+            QueueDeltaEvent event = slots[slotOf(seq)];
+            if (event == null || event.getSeq() != seq) {
+                break;
+            }
+            events.add(event);
+        }
+        return events;
+    }
+
+    private int slotOf(long seq) {
+        return (int) (seq % slots.length);
+    }
+}
@@ -0,0 +1,93 @@
+package org.example.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.config.QueueConfig;
+import org.example.repository.ReceptionRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 진료일 마감 서비스
+ * 지난 진료일에 처리되지 않은 접수(PENDING, CONFIRMED, CALLED)를 CLOSED로 옮겨
+ * 대기열 조회가 당일 접수만 다루도록 한다. 배치 단위로 나누어 각각 별도 트랜잭션으로 처리한다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class QueueRolloverService {
+
+    private final ReceptionRepository receptionRepository;
+    private final WaitingQueueIndex waitingQueueIndex;
+    private final QueueConfig queueConfig;
+
+    /**
+     * 시작 시 지난 진료일 정리 (서버가 자정에 꺼져 있었던 경우 대비)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(0)
+    public void rolloverOnStartup() {
+        rollover();
+    }
+
+    /**
+     * 매일 자정 진료일 마감
+     */
+    @Scheduled(cron = "${queue.rollover-cron:0 0 0 * * *}")
+    public void rolloverScheduled() {
+        rollover();
+    }
+
+    /**
+     * 지난 진료일 미처리 접수 마감
+     * 마감된 접수는 배치마다 커밋 직후 인덱스에서 하나씩 제거한다 (REMOVED 이벤트 전송).
+     * 전체 재구성과 달리 그 사이 진행 중인 새 접수의 변경은 건드리지 않는다.
+     * 먼저 잠긴 행을 건너뛰며 마감하고, 건너뛴 행은 잠금이 풀리기를 기다려 마저 마감한다.
+     * @return 마감 처리된 접수 수
+     */
+    public int rollover() {
+        LocalDate today = LocalDate.now();
+        int batchSize = Math.max(queueConfig.getRolloverBatchSize(), 1);
+
+        int closed = 0;
+        int updated;
+        List<Long> closedIds;
+        do {
+            closedIds = receptionRepository.closeStaleReceptions(today, batchSize);
+            closed += removeFromIndex(closedIds);
+        } while (!closedIds.isEmpty());
+
+        // 진행 중인 요청이 잠가 건너뛴 행 (잠금은 요청 하나 길이이므로 기다려도 짧다)
+        int waited = 0;
+        do {
+            closedIds = receptionRepository.closeStaleReceptionsWaiting(today, batchSize);
+            waited += removeFromIndex(closedIds);
+        } while (!closedIds.isEmpty());
+        closed += waited;
+
+        int backfilled = 0;
+        do {
+            updated = receptionRepository.backfillServiceDate(batchSize);
+            backfilled += updated;
+        } while (updated > 0);
+
+        if (closed > 0 || backfilled > 0) {
+            log.info("진료일 마감 완료: 기준일 {}, 마감 {}건 (잠금 대기 후 마감 {}건), 진료일 보정 {}건",
+                today, closed, waited, backfilled);
+        }
+        return closed;
+    }
+
+    private int removeFromIndex(List<Long> closedIds) {
+        for (Long receptionId : closedIds) {
+            waitingQueueIndex.onRemoved(receptionId);
+        }
+        return closedIds.size();
+    }
+}
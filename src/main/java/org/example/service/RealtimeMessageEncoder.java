@@ -0,0 +1,35 @@
+package org.example.service;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.example.config.WebSocketProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 실시간 알림 직렬화
+ * websocket.compact-encoding이 켜져 있으면 값이 없는(null) 필드를 생략하여 메시지 크기를 줄인다.
+ * 필드 이름은 그대로 두므로 클라이언트는 두 형식을 구분하지 않고 읽을 수 있다.
+ */
+@Component
+public class RealtimeMessageEncoder {
+
+    private final ObjectWriter writer;
+
+    public RealtimeMessageEncoder(ObjectMapper objectMapper, WebSocketProperties webSocketProperties) {
+        ObjectMapper mapper = objectMapper.copy();
+        if (webSocketProperties.isCompactEncoding()) {
+            mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        }
+        this.writer = mapper.writer();
+    }
+
+    public MessageFrame encode(Object payload) {
+        try {
+            return new MessageFrame(writer.writeValueAsBytes(payload));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("알림 메시지 변환 실패: " + e.getOriginalMessage(), e);
+        }
+    }
+}
@@ -1,29 +1,80 @@
 package org.example.service;
 
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.config.WebSocketProperties;
+import org.example.dto.QueueDeltaEvent;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * 실시간 알림 서비스
+ * 대기열 알림은 목적지별로 짧은 구간(websocket.coalesce-window-ms) 동안 모았다가 한 번에 전송하여,
+ * 접수가 몰려도 전송되는 메시지 수가 구간당 한 건으로 제한되도록 한다.
+ * 환자 호출 등 개별 알림은 모으지 않고 바로 전송한다.
+ * 메시지는 목적지별로 한 번만 직렬화(MessageFrame)하여 구독자 수와 관계없이 변환 비용이 일정하다.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class RealtimeNotificationService {
     
+    private static final String WAITING_QUEUE_DESTINATION = "/topic/waiting-queue";
+    private static final String PATIENT_QUEUE = "/queue/reception";
+    private static final String DISPLAY_BOARD_DESTINATION = "/topic/display-board";
+    
     private final SimpMessagingTemplate messagingTemplate;
+    private final PatientSessionRegistry patientSessionRegistry;
+    private final WebSocketProperties webSocketProperties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RealtimeMessageEncoder messageEncoder;
+    
+    private final Map<String, PendingBroadcast> pendingBroadcasts = new HashMap<>();
+    private final ScheduledExecutorService coalesceScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "broadcast-coalescer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    private final AtomicLong emittedCount = new AtomicLong();
+    private final AtomicLong suppressedCount = new AtomicLong();
+    private final AtomicLong encodedBytes = new AtomicLong();
     
     /**
-     * 대기열 업데이트 알림
+     * 대기열 전체 갱신 알림 (대기열 재구성 시, 받은 클라이언트는 전체를 다시 조회)
      */
-    public void notifyWaitingQueueUpdate() {
-        log.info("대기열 업데이트 알림 전송");
+    public void notifyWaitingQueueUpdate(long seq, int confirmedCount, int pendingCount) {
+        log.info("대기열 업데이트 알림 전송: seq {}", seq);
         Map<String, Object> message = new HashMap<>();
         message.put("type", "QUEUE_UPDATE");
+        message.put("seq", seq);
+        message.put("confirmedCount", confirmedCount);
+        message.put("pendingCount", pendingCount);
         message.put("timestamp", System.currentTimeMillis());
-        messagingTemplate.convertAndSend("/topic/waiting-queue", message);
+        submitLatest(WAITING_QUEUE_DESTINATION, message);
+    }
+    
+    /**
+     * 대기열 변경 이벤트 전송 (추가, 이동, 순번 변경, 제거)
+     * 같은 이벤트를 서버 내부에도 발행해 순번 알림 SMS 규칙이 변경분만 보고 판단하게 한다.
+     */
+    public void notifyQueueDelta(QueueDeltaEvent event) {
+        log.debug("대기열 변경 이벤트 전송: seq {}, {} 접수 ID {}", event.getSeq(), event.getOp(), event.getReceptionId());
+        submitDelta(WAITING_QUEUE_DESTINATION, event);
+        eventPublisher.publishEvent(event);
     }
     
     /**
@@ -39,10 +90,7 @@ public class RealtimeNotificationService {
         message.put("oldStatus", oldStatus);
         message.put("newStatus", newStatus);
         message.put("timestamp", System.currentTimeMillis());
-        messagingTemplate.convertAndSend("/topic/reception/" + receptionId, message);
-        
-        // 전체 대기열에도 알림
-        notifyWaitingQueueUpdate();
+        sendToPatient(receptionId, "STATUS_CHANGE", message);
     }
     
     /**
@@ -57,34 +105,33 @@ public class RealtimeNotificationService {
         nurseMessage.put("receptionId", receptionId);
         nurseMessage.put("patientName", patientName);
         nurseMessage.put("timestamp", System.currentTimeMillis());
-        messagingTemplate.convertAndSend("/topic/nurse/new-reception", nurseMessage);
-        
-        // 전체 대기열 업데이트
-        notifyWaitingQueueUpdate();
+        send("/topic/nurse/new-reception", nurseMessage);
     }
     
     /**
      * 의사 호출 알림
      */
-    public void notifyDoctorCall(Long receptionId, String patientName) {
-        log.info("의사 호출 알림: 접수 ID {}, 환자 {}", receptionId, patientName);
+    public void notifyDoctorCall(Long receptionId, String patientName, Integer roomNumber) {
+        log.info("의사 호출 알림: 접수 ID {}, 환자 {}, {}번 진료실", receptionId, patientName, roomNumber);
         
         // 특정 환자에게 호출 알림
         Map<String, Object> patientMessage = new HashMap<>();
         patientMessage.put("type", "DOCTOR_CALL");
         patientMessage.put("receptionId", receptionId);
         patientMessage.put("patientName", patientName);
-        patientMessage.put("message", patientName + "님, 진료실로 입장해 주세요!");
+        patientMessage.put("roomNumber", roomNumber);
+        patientMessage.put("message", patientName + "님, " + roomNumber + "번 진료실로 입장해 주세요!");
         patientMessage.put("timestamp", System.currentTimeMillis());
-        messagingTemplate.convertAndSend("/topic/reception/" + receptionId, patientMessage);
+        sendToPatient(receptionId, "DOCTOR_CALL", patientMessage);
         
         // 의사 화면에 환자 정보 업데이트
         Map<String, Object> doctorMessage = new HashMap<>();
         doctorMessage.put("type", "CURRENT_PATIENT_UPDATE");
         doctorMessage.put("receptionId", receptionId);
         doctorMessage.put("patientName", patientName);
+        doctorMessage.put("roomNumber", roomNumber);
         doctorMessage.put("timestamp", System.currentTimeMillis());
-        messagingTemplate.convertAndSend("/topic/doctor/current-patient", doctorMessage);
+        send("/topic/doctor/current-patient", doctorMessage);
     }
     
     /**
@@ -95,7 +142,8 @@ public class RealtimeNotificationService {
         Map<String, Object> message = new HashMap<>();
         message.put("type", "STATISTICS_UPDATE");
         message.put("timestamp", System.currentTimeMillis());
-        messagingTemplate.convertAndSend("/topic/statistics", message);
+        // 짧은 시간에 여러 번 발생해도 마지막 한 번만 전송
+        submitLatest("/topic/statistics", message);
     }
     
     /**
@@ -107,6 +155,181 @@ public class RealtimeNotificationService {
         message.put("type", "PATIENT_CALL");
         message.put("patientName", patientName);
         message.put("timestamp", System.currentTimeMillis());
-        messagingTemplate.convertAndSend("/topic/patient-call", message);
+        send("/topic/patient-call", message);
+    }
+    
+    /**
+     * 대기 현황판 변경분 전송 (현황판 서비스가 변경마다 한 번 계산한 결과)
+     */
+    public void notifyDisplayBoard(Map<String, Object> message) {
+        log.debug("대기 현황판 변경 전송: version {}", message.get("version"));
+        send(DISPLAY_BOARD_DESTINATION, message);
+    }
+    
+    /**
+     * 전송 통계 (전송된 메시지 수, 병합되거나 대체되어 전송되지 않은 이벤트 수)
+     */
+    public Map<String, Object> getBroadcastMetrics() {
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("coalesceWindowMs", webSocketProperties.getCoalesceWindowMs());
+        metrics.put("emitted", emittedCount.get());
+        metrics.put("suppressed", suppressedCount.get());
+        metrics.put("encodedBytes", encodedBytes.get());
+        metrics.put("compactEncoding", webSocketProperties.isCompactEncoding());
+        metrics.put("patientSessions", patientSessionRegistry.getSessionCount());
+        return metrics;
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        coalesceScheduler.shutdown();
+    }
+    
+    /**
+     * 마지막 값만 의미 있는 알림 등록 (같은 구간의 이전 알림은 대체)
+     */
+    private void submitLatest(String destination, Map<String, Object> message) {
+        if (webSocketProperties.getCoalesceWindowMs() <= 0) {
+            send(destination, message);
+            return;
+        }
+        synchronized (pendingBroadcasts) {
+            PendingBroadcast pending = pendingFor(destination);
+            if (pending.latest != null) {
+                suppressedCount.incrementAndGet();
+            }
+            pending.latest = message;
+        }
+    }
+    
+    /**
+     * 대기열 변경 이벤트 등록 (같은 구간의 이벤트는 한 메시지로 묶어서 전송)
+     */
+    private void submitDelta(String destination, QueueDeltaEvent event) {
+        if (webSocketProperties.getCoalesceWindowMs() <= 0) {
+            send(destination, event);
+            return;
+        }
+        synchronized (pendingBroadcasts) {
+            pendingFor(destination).deltas.add(event);
+        }
+    }
+    
+    /**
+     * 목적지별 대기 버퍼 조회 (없으면 만들고 구간 종료 시 전송 예약)
+     * pendingBroadcasts 동기화 안에서만 호출
+     */
+    private PendingBroadcast pendingFor(String destination) {
+        PendingBroadcast pending = pendingBroadcasts.get(destination);
+        if (pending == null) {
+            pending = new PendingBroadcast();
+            pendingBroadcasts.put(destination, pending);
+            coalesceScheduler.schedule(() -> flush(destination), webSocketProperties.getCoalesceWindowMs(), TimeUnit.MILLISECONDS);
+        }
+        return pending;
+    }
+    
+    private void flush(String destination) {
+        PendingBroadcast pending;
+        synchronized (pendingBroadcasts) {
+            pending = pendingBroadcasts.remove(destination);
+        }
+        if (pending == null) {
+            return;
+        }
+        try {
+            List<QueueDeltaEvent> deltas = pending.deltas;
+            if (pending.latest != null) {
+                // 전체 갱신 이후의 변경만 남김 (그 이전 변경은 전체 조회에 포함됨)
+                Object resetSeq = pending.latest.get("seq");
+                if (resetSeq instanceof Long) {
+                    List<QueueDeltaEvent> remaining = new ArrayList<>();
+                    for (QueueDeltaEvent delta : deltas) {
+                        if (delta.getSeq() > (Long) resetSeq) {
+                            remaining.add(delta);
+                        }
+                    }
+                    suppressedCount.addAndGet(deltas.size() - remaining.size());
+                    deltas = remaining;
+                }
+                send(destination, pending.latest);
+            }
+            
+            if (deltas.size() == 1) {
+                send(destination, deltas.get(0));
+            } else if (deltas.size() > 1) {
+                deltas.sort(Comparator.comparingLong(QueueDeltaEvent::getSeq));
+                Map<String, Object> batch = new HashMap<>();
+                batch.put("type", "QUEUE_DELTA_BATCH");
+                batch.put("fromSeq", deltas.get(0).getSeq());
+                batch.put("toSeq", deltas.get(deltas.size() - 1).getSeq());
+                batch.put("events", deltas);
+                batch.put("timestamp", System.currentTimeMillis());
+                suppressedCount.addAndGet(deltas.size() - 1);
+                send(destination, batch);
+            }
+        } catch (Exception e) {
+            log.error("알림 전송 실패: {} - {}", destination, e.getMessage());
+        }
+    }
+    
+    /**
+     * 환자 개인 알림 전송 (/user/queue/reception)
+     * 내장 브로커에서는 연결된 세션이 없으면 보내지 않는다.
+     * 외부 브로커에서는 다른 인스턴스에 연결되어 있을 수 있으므로 항상 보낸다.
+     */
+    private void sendToPatient(Long receptionId, String type, Object payload) {
+        MessageFrame frame = encode(payload);
+        // SSE로 연결된 환자에게도 전달
+        eventPublisher.publishEvent(new PatientNotification(receptionId, type, frame));
+        
+        if (!webSocketProperties.isRelayMode() && !patientSessionRegistry.isConnected(receptionId)) {
+            return;
+        }
+        String userDestination = messagingTemplate.getUserDestinationPrefix()
+                + PatientSessionRegistry.principalName(receptionId) + PATIENT_QUEUE;
+        messagingTemplate.send(userDestination, frame.toMessage());
+        emittedCount.incrementAndGet();
+    }
+    
+    private void send(String destination, Object payload) {
+        // 브로커는 같은 본문을 구독자마다 그대로 전달하므로 여기서 한 번만 직렬화한다
+        messagingTemplate.send(destination, encode(payload).toMessage());
+        emittedCount.incrementAndGet();
+        if (WAITING_QUEUE_DESTINATION.equals(destination)) {
+            // SSE 스트림의 순번 갱신용
+            eventPublisher.publishEvent(new QueueChanged());
+        }
+    }
+    
+    private MessageFrame encode(Object payload) {
+        MessageFrame frame = messageEncoder.encode(payload);
+        encodedBytes.addAndGet(frame.getSize());
+        return frame;
+    }
+    
+    /**
+     * 목적지별로 전송을 기다리는 알림
+     */
+    private static final class PendingBroadcast {
+        Map<String, Object> latest;
+        final List<QueueDeltaEvent> deltas = new ArrayList<>();
+    }
+    
+    /**
+     * 환자 개인 알림 이벤트 (SSE 스트림 전달용)
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class PatientNotification {
+        private final Long receptionId;
+        private final String type;
+        private final MessageFrame frame;
+    }
+    
+    /**
+     * 대기열 알림 전송 완료 이벤트 (SSE 스트림 순번 갱신용)
+     */
+    public static class QueueChanged {
     }
 } 
\ No newline at end of file
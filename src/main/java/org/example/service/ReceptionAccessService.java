@@ -0,0 +1,46 @@
+package org.example.service;
+
+import lombok.RequiredArgsConstructor;
+import org.example.repository.ReceptionRepository;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * 환자 대기 화면 접근 토큰
+ * 접수 시 접수마다 임의의 토큰을 발급해 접수 응답으로만 돌려주고,
+ * 개인 알림 연결(STOMP CONNECT, SSE)은 접수 ID와 토큰이 함께 맞을 때만 허용한다.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReceptionAccessService {
+
+    private static final int TOKEN_BYTES = 24;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final ReceptionRepository receptionRepository;
+
+    /**
+     * 새 접근 토큰 (URL에 그대로 넣을 수 있는 32자)
+     */
+    public String issueToken() {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        RANDOM.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    /**
+     * 접수 ID와 토큰 확인 (토큰이 없는 접수는 항상 거부)
+     */
+    public boolean isValid(Long receptionId, String token) {
+        if (receptionId == null || token == null || token.isEmpty()) {
+            return false;
+        }
+        return receptionRepository.findAccessTokenById(receptionId)
+            .map(expected -> MessageDigest.isEqual(expected.getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8)))
+            .orElse(false);
+    }
+}
@@ -2,6 +2,7 @@ package org.example.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.config.QueueConfig;
 import org.example.dto.*;
 import org.example.model.*;
 import org.example.repository.*;
@@ -10,8 +11,10 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,6 +29,14 @@ public class ReceptionService {
     private final PrescriptionRepository prescriptionRepository;
     private final RealtimeNotificationService realtimeNotificationService;
     private final WaitingQueueService waitingQueueService;
+    private final WaitingQueueIndex waitingQueueIndex;
+    private final QueueConfig queueConfig;
+    private final ConsultationTimeEstimator consultationTimeEstimator;
+    private final AfterCommitExecutor afterCommitExecutor;
+    private final ReceptionAccessService receptionAccessService;
+    
+    // 조건부 상태 변경 최대 시도 횟수
+    private static final int MAX_TRANSITION_ATTEMPTS = 3;
     
     @Transactional
     public ReceptionResponse registerPatient(PatientRegistrationRequest request) {
@@ -53,12 +64,17 @@ public class ReceptionService {
         Reception reception = new Reception();
         reception.setPatient(patient);
         reception.setStatus(Reception.ReceptionStatus.PENDING);
-        reception.setIsGuardian(false); // 기본값: 본인 접수
+        boolean isGuardian = Boolean.TRUE.equals(request.getIsGuardian()); // 기본값: 본인 접수
+        reception.setIsGuardian(isGuardian);
+        reception.setPriorityLane(waitingQueueService.determineLane(patient, isGuardian,
+            !isNewPatient && receptionRepository.existsByPatientIdAndStatus(patient.getId(), Reception.ReceptionStatus.COMPLETED)));
         reception.setSmsNotificationEnabled(true); // 기본값: SMS 알림 활성화
         reception.setSmsSent(false);
         reception.setCreatedAt(LocalDateTime.now());
+        reception.setAccessToken(receptionAccessService.issueToken());
         
         reception = receptionRepository.save(reception);
+        waitingQueueIndex.onRegistered(reception);
         log.info("접수 등록 완료: 환자 {} (접수 ID: {})", patient.getName(), reception.getId());
 
         // 문진표 데이터가 있으면 저장
@@ -81,8 +97,10 @@ public class ReceptionService {
         // 현재 대기 순번 계산
         int waitingPosition = calculateWaitingPosition(reception);
         
-        // 실시간 알림 전송
-        realtimeNotificationService.notifyNewReception(reception.getId(), patient.getName());
+        // 실시간 알림 전송 (커밋 후)
+        Long newReceptionId = reception.getId();
+        String patientName = patient.getName();
+        afterCommitExecutor.executeAsync(() -> realtimeNotificationService.notifyNewReception(newReceptionId, patientName));
         
         return ReceptionResponse.builder()
             .id(reception.getId())
@@ -91,34 +109,49 @@ public class ReceptionService {
             .phoneNumber(patient.getPhoneNumber())
             .status(reception.getStatus())
             .isGuardian(reception.getIsGuardian())
+            .priorityLane(reception.getPriorityLane())
             .createdAt(reception.getCreatedAt())
             .waitingPosition(waitingPosition)
             .isNewPatient(isNewPatient)
             .hasSurvey(hasSurvey)
+            .accessToken(reception.getAccessToken())
             .build();
     }
     
     @Transactional
     public ReceptionResponse confirmReception(Long receptionId) {
-        Reception reception = receptionRepository.findById(receptionId)
-            .orElseThrow(() -> new RuntimeException("접수를 찾을 수 없습니다."));
-        
-        if (reception.getStatus() != Reception.ReceptionStatus.PENDING) {
-            throw new RuntimeException("이미 처리된 접수입니다.");
-        }
-        
-        reception.setStatus(Reception.ReceptionStatus.CONFIRMED);
-        reception.setConfirmedAt(LocalDateTime.now());
-        reception = receptionRepository.save(reception);
+        // 읽은 버전이 그대로일 때만 PENDING -> CONFIRMED (다른 변경과 겹치면 다시 읽어서 재시도)
+        Reception reception = transitionWithRetry(receptionId, Reception.ReceptionStatus.PENDING, "이미 처리된 접수입니다.", current -> {
+            LocalDateTime confirmedAt = LocalDateTime.now();
+            LocalDateTime priorityAt = waitingQueueService.computePriorityAt(current.getPriorityLane(), confirmedAt);
+            return receptionRepository.confirmIfUnchanged(current.getId(), current.getVersion(),
+                Reception.ReceptionStatus.PENDING, Reception.ReceptionStatus.CONFIRMED, confirmedAt, priorityAt);
+        });
+        waitingQueueIndex.onConfirmed(reception);
         
         log.info("접수 확인 완료: 환자 {} (접수 ID: {})", reception.getPatient().getName(), reception.getId());
         
-        // 실시간 알림 전송
-        realtimeNotificationService.notifyPatientStatusChange(reception.getId(), "PENDING", "CONFIRMED");
+        // 실시간 알림 전송 (커밋 후, 순번 알림 SMS는 대기열 변경 이벤트로 처리)
+        afterCommitExecutor.executeAsync(() -> realtimeNotificationService.notifyPatientStatusChange(receptionId, "PENDING", "CONFIRMED"));
         
-        // SMS 알림 체크 및 발송
-        waitingQueueService.checkAndSendSmsNotifications();
+        return convertToReceptionResponse(reception);
+    }
+    
+    /**
+     * 접수의 우선순위 레인 변경 (응급 지정 등)
+     * 확인된 접수는 순서 기준 시각도 새 레인으로 다시 계산해 대기열 순서를 바꾼다.
+     */
+    @Transactional
+    public ReceptionResponse changePriorityLane(Long receptionId, Reception.PriorityLane lane) {
+        // 읽은 버전이 그대로일 때만 변경 (SMS 발송 표시 등 다른 변경과 겹치면 다시 읽어 재시도)
+        Reception reception = updateWithRetry(receptionId, current -> receptionRepository.changeLaneIfUnchanged(current.getId(), current.getVersion(), lane,
+            current.getStatus() == Reception.ReceptionStatus.CONFIRMED
+                ? waitingQueueService.computePriorityAt(lane, current.getConfirmedAt()) : current.getPriorityAt()));
+        if (reception.getStatus() == Reception.ReceptionStatus.CONFIRMED) {
+            waitingQueueIndex.onConfirmed(reception);
+        }
         
+        log.info("우선순위 레인 변경: 접수 ID {}, 레인 {}", receptionId, lane);
         return convertToReceptionResponse(reception);
     }
     
@@ -145,56 +178,46 @@ public class ReceptionService {
     }
     
     @Transactional
-    public PatientInfoResponse callNextPatient() {
-        log.info("환자 호출 요청 시작");
+    public PatientInfoResponse callNextPatient(int roomNumber) {
+        log.info("환자 호출 요청 시작: {}번 진료실", roomNumber);
+        
+        if (!queueConfig.isValidRoom(roomNumber)) {
+            throw new IllegalArgumentException("존재하지 않는 진료실입니다: " + roomNumber);
+        }
         
-        // 현재 호출된 환자가 있는지 확인
-        int currentCalledCount = receptionRepository.countCalledReceptions();
+        // 해당 진료실에 이미 호출된 환자가 있는지 확인
+        int currentCalledCount = receptionRepository.countCalledReceptionsByRoom(LocalDate.now(), roomNumber);
         if (currentCalledCount > 0) {
-            List<Reception> calledReceptions = receptionRepository.findCalledReceptions();
+            List<Reception> calledReceptions = receptionRepository.findCalledReceptionsByRoom(LocalDate.now(), roomNumber);
             String currentPatientNames = calledReceptions.stream()
                 .map(r -> r.getPatient().getName())
                 .collect(java.util.stream.Collectors.joining(", "));
             
-            log.warn("이미 호출된 환자가 있습니다: {}", currentPatientNames);
+            log.warn("{}번 진료실에 이미 호출된 환자가 있습니다: {}", roomNumber, currentPatientNames);
             throw new RuntimeException("이미 호출된 환자가 있습니다: " + currentPatientNames + ". 현재 환자의 진료를 완료한 후 다음 환자를 호출해주세요.");
         }
         
-        // 락을 사용하여 다음 호출 가능한 환자 조회
-        List<Reception> confirmedReceptions = receptionRepository.findNextPatientToCallWithLock();
-        
-        if (confirmedReceptions.isEmpty()) {
-            log.warn("호출할 환자가 없습니다.");
-            throw new RuntimeException("호출할 환자가 없습니다.");
-        }
-        
-        Reception reception = confirmedReceptions.get(0);
-        Long receptionId = reception.getId();
-        LocalDateTime calledAt = LocalDateTime.now();
-        
-        // 원자적으로 상태 변경 (CONFIRMED -> CALLED)
-        int updatedRows = receptionRepository.updateStatusToCalledIfConfirmed(receptionId, calledAt);
-        
-        if (updatedRows == 0) {
-            log.warn("환자 호출 실패: 이미 호출된 환자이거나 상태가 변경됨 (접수 ID: {})", receptionId);
-            throw new RuntimeException("이미 호출된 환자이거나 상태가 변경되었습니다. 다시 시도해주세요.");
-        }
+        // 다음 호출 대상 한 건만 선점하여 원자적으로 상태 변경 (CONFIRMED -> CALLED)
+        Long receptionId = receptionRepository.claimNextConfirmedReception(LocalDate.now(), LocalDateTime.now(), roomNumber)
+            .orElseThrow(() -> {
+                log.warn("호출할 환자가 없습니다.");
+                return new RuntimeException("호출할 환자가 없습니다.");
+            });
         
-        // 업데이트된 Reception 엔티티 다시 조회
-        reception = receptionRepository.findById(receptionId)
+        // 업데이트된 Reception 엔티티 조회
+        Reception reception = receptionRepository.findById(receptionId)
             .orElseThrow(() -> new RuntimeException("접수 정보를 찾을 수 없습니다."));
+        waitingQueueIndex.onCalled(reception);
         
-        log.info("환자 호출 성공: {} (접수 ID: {})", reception.getPatient().getName(), reception.getId());
+        log.info("환자 호출 성공: {} (접수 ID: {}, {}번 진료실)", reception.getPatient().getName(), reception.getId(), roomNumber);
         
-        // 실시간 알림 전송
-        realtimeNotificationService.notifyDoctorCall(reception.getId(), reception.getPatient().getName());
+        // 실시간 알림 전송 (커밋 후)
+        String calledPatientName = reception.getPatient().getName();
+        afterCommitExecutor.executeAsync(() -> realtimeNotificationService.notifyDoctorCall(receptionId, calledPatientName, roomNumber));
         
         // SMS 상태 초기화 (다음 환자들의 SMS 발송을 위해)
         waitingQueueService.resetSmsStatusForReception(reception.getId());
         
-        // 대기열 변경으로 인한 SMS 알림 체크
-        waitingQueueService.checkAndSendSmsNotifications();
-        
         // 환자 정보와 문진표, 과거 이력 조회
         PatientInfoResponse patientInfo = getPatientInfo(reception.getPatient().getId());
         
@@ -211,42 +234,46 @@ public class ReceptionService {
     
     @Transactional
     public ReceptionResponse completeReception(Long receptionId) {
-        Reception reception = receptionRepository.findById(receptionId)
-            .orElseThrow(() -> new RuntimeException("접수를 찾을 수 없습니다."));
-        
-        if (reception.getStatus() != Reception.ReceptionStatus.CALLED) {
-            throw new RuntimeException("호출된 환자만 진료 완료 처리할 수 있습니다.");
-        }
-        
-        reception.setStatus(Reception.ReceptionStatus.COMPLETED);
-        reception.setCompletedAt(LocalDateTime.now());
-        reception = receptionRepository.save(reception);
+        // 읽은 버전이 그대로일 때만 CALLED -> COMPLETED
+        Reception reception = transitionWithRetry(receptionId, Reception.ReceptionStatus.CALLED, "호출된 환자만 진료 완료 처리할 수 있습니다.",
+            current -> receptionRepository.completeIfUnchanged(current.getId(), current.getVersion(),
+                Reception.ReceptionStatus.CALLED, Reception.ReceptionStatus.COMPLETED, LocalDateTime.now()));
+        waitingQueueIndex.onRemoved(reception.getId());
+        // 진료 시간 표본은 커밋된 완료만 반영 (롤백되면 추정에 넣지 않는다)
+        Integer roomNumber = reception.getRoomNumber();
+        LocalDateTime calledAt = reception.getCalledAt();
+        LocalDateTime completedAt = reception.getCompletedAt();
+        afterCommitExecutor.afterCommit(() -> consultationTimeEstimator.recordConsultation(roomNumber, calledAt, completedAt));
         
         log.info("진료 완료: 환자 {} (접수 ID: {})", reception.getPatient().getName(), reception.getId());
         
-        // 실시간 알림 전송
-        realtimeNotificationService.notifyPatientStatusChange(reception.getId(), "CALLED", "COMPLETED");
-        
-        // 대기열 업데이트 알림 전송 (의사 화면의 현재 환자 목록 업데이트용)
-        realtimeNotificationService.notifyWaitingQueueUpdate();
+        // 실시간 알림 전송 (커밋 후)
+        afterCommitExecutor.executeAsync(() -> realtimeNotificationService.notifyPatientStatusChange(receptionId, "CALLED", "COMPLETED"));
         
         return convertToReceptionResponse(reception);
     }
     
     @Transactional(readOnly = true)
     public List<ReceptionResponse> getPendingReceptions() {
-        List<Reception> pendingReceptions = receptionRepository.findByStatusOrderByCreatedAtAsc(Reception.ReceptionStatus.PENDING);
-        return pendingReceptions.stream()
-            .map(this::convertToReceptionResponse)
-            .collect(Collectors.toList());
+        List<Reception> pendingReceptions = receptionRepository.findByStatusWithPatientOrderByCreatedAtAsc(LocalDate.now(), Reception.ReceptionStatus.PENDING);
+        // PENDING 순번은 CONFIRMED 인원 뒤에 이어지므로 시작 오프셋만 한 번 계산
+        return convertToReceptionResponses(pendingReceptions, waitingQueueIndex.getConfirmedCount());
     }
     
     @Transactional(readOnly = true)
     public List<ReceptionResponse> getConfirmedReceptions() {
-        List<Reception> confirmedReceptions = receptionRepository.findByStatusOrderByConfirmedAtAsc(Reception.ReceptionStatus.CONFIRMED);
-        return confirmedReceptions.stream()
-            .map(this::convertToReceptionResponse)
-            .collect(Collectors.toList());
+        List<Reception> confirmedReceptions = receptionRepository.findConfirmedWithPatientInQueueOrder(LocalDate.now());
+        return convertToReceptionResponses(confirmedReceptions, 0);
+    }
+    
+    /**
+     * 접수 한 건 조회 (직원 화면에서 대기열 이벤트의 접수 ID로 환자 정보를 채울 때)
+     */
+    @Transactional(readOnly = true)
+    public ReceptionResponse getReception(Long receptionId) {
+        Reception reception = receptionRepository.findByIdWithPatient(receptionId)
+            .orElseThrow(() -> new RuntimeException("접수를 찾을 수 없습니다."));
+        return convertToReceptionResponse(reception);
     }
     
     @Transactional
@@ -275,12 +302,10 @@ public class ReceptionService {
         
         // 접수 삭제
         receptionRepository.delete(reception);
+        waitingQueueIndex.onRemoved(receptionId);
         
         log.info("접수 삭제 완료: 환자 {} (접수 ID: {})", reception.getPatient().getName(), reception.getId());
         
-        // 실시간 알림 전송 (대기열 업데이트)
-        realtimeNotificationService.notifyWaitingQueueUpdate();
-        
         return response;
     }
     
@@ -314,62 +339,55 @@ public class ReceptionService {
         
         // 접수 삭제
         receptionRepository.delete(reception);
+        waitingQueueIndex.onRemoved(receptionId);
         
         log.info("접수 강제 삭제 완료: 환자 {} (접수 ID: {}, 상태: {})", 
                 reception.getPatient().getName(), reception.getId(), reception.getStatus());
         
-        // 실시간 알림 전송 (대기열 업데이트)
-        realtimeNotificationService.notifyWaitingQueueUpdate();
-        
         return response;
     }
     
     @Transactional(readOnly = true)
-    public List<PatientInfoResponse> getCalledPatients() {
-        List<Reception> calledReceptions = receptionRepository.findCalledReceptions();
+    public List<PatientInfoResponse> getCalledPatients(Integer roomNumber) {
+        List<Reception> calledReceptions = roomNumber != null
+            ? receptionRepository.findCalledReceptionsByRoom(LocalDate.now(), roomNumber)
+            : receptionRepository.findCalledReceptionsByServiceDate(LocalDate.now());
         return calledReceptions.stream()
             .map(reception -> getPatientInfo(reception.getPatient().getId()))
             .collect(Collectors.toList());
     }
     
-    @Transactional(readOnly = true)
     public int getCurrentWaitingCount() {
-        return (int) receptionRepository.countByStatus(Reception.ReceptionStatus.CONFIRMED);
+        return waitingQueueIndex.getConfirmedCount();
     }
     
+    /**
+     * 환자 대기 현황 조회 (폴링용)
+     * 접수 정보는 Patient와 함께 한 번의 SQL로 조회하고, 순번과 대기 인원은 대기열 인덱스에서 계산한다.
+     */
     @Transactional(readOnly = true)
-    public int getWaitingPosition(Long receptionId) {
-        Reception reception = receptionRepository.findById(receptionId).orElse(null);
+    public WaitingStatusResponse getWaitingStatus(Long receptionId) {
+        Reception reception = receptionRepository.findByIdWithPatient(receptionId).orElse(null);
         if (reception == null) {
-            return 0;
+            return null;
         }
         
-        // PENDING 상태인 경우: CONFIRMED 환자 수 + PENDING 목록에서의 순서
-        if (reception.getStatus() == Reception.ReceptionStatus.PENDING) {
-            // CONFIRMED된 환자 수 계산
-            int confirmedCount = (int) receptionRepository.countByStatus(Reception.ReceptionStatus.CONFIRMED);
-            
-            // PENDING 목록에서의 순서 계산
-            List<Reception> pendingReceptions = receptionRepository.findByStatusOrderByCreatedAtAsc(Reception.ReceptionStatus.PENDING);
-            for (int i = 0; i < pendingReceptions.size(); i++) {
-                if (pendingReceptions.get(i).getId().equals(receptionId)) {
-                    return confirmedCount + i + 1;
-                }
-            }
-        }
-        
-        // CONFIRMED 상태인 경우 확인된 순서대로 대기 순번 계산
-        if (reception.getStatus() == Reception.ReceptionStatus.CONFIRMED) {
-            List<Reception> confirmedReceptions = receptionRepository.findByStatusOrderByConfirmedAtAsc(Reception.ReceptionStatus.CONFIRMED);
-            for (int i = 0; i < confirmedReceptions.size(); i++) {
-                if (confirmedReceptions.get(i).getId().equals(receptionId)) {
-                    return i + 1;
-                }
-            }
-        }
-        
-        // CALLED 또는 COMPLETED 상태인 경우 대기 순번 없음
-        return 0;
+        long queueSeq = waitingQueueIndex.getSeq();
+        int waitingPosition = calculateWaitingPosition(reception);
+        return WaitingStatusResponse.builder()
+            .receptionId(reception.getId())
+            .patientName(reception.getPatient().getName())
+            .phoneNumber(reception.getPatient().getPhoneNumber())
+            .createdAt(reception.getCreatedAt())
+            .confirmedAt(reception.getConfirmedAt())
+            .status(reception.getStatus())
+            .waitingPosition(waitingPosition)
+            .totalWaiting(waitingQueueIndex.getConfirmedCount())
+            .estimatedWaitMinutes(consultationTimeEstimator.estimateWaitMinutes(waitingPosition))
+            .smsNotificationEnabled(reception.getSmsNotificationEnabled())
+            .smsSent(reception.getSmsSent())
+            .queueSeq(queueSeq)
+            .build();
     }
     
     @Transactional(readOnly = true)
@@ -550,35 +568,30 @@ public class ReceptionService {
     }
     
     private int calculateWaitingPosition(Reception reception) {
-        // PENDING 상태인 경우: CONFIRMED 환자 수 + PENDING 목록에서의 순서
-        if (reception.getStatus() == Reception.ReceptionStatus.PENDING) {
-            // CONFIRMED된 환자 수 계산
-            int confirmedCount = (int) receptionRepository.countByStatus(Reception.ReceptionStatus.CONFIRMED);
-            
-            // PENDING 목록에서의 순서 계산
-            List<Reception> pendingReceptions = receptionRepository.findByStatusOrderByCreatedAtAsc(Reception.ReceptionStatus.PENDING);
-            for (int i = 0; i < pendingReceptions.size(); i++) {
-                if (pendingReceptions.get(i).getId().equals(reception.getId())) {
-                    return confirmedCount + i + 1;
-                }
-            }
+        // CALLED 또는 COMPLETED 상태인 경우 대기 순번 없음
+        if (reception.getStatus() != Reception.ReceptionStatus.PENDING
+                && reception.getStatus() != Reception.ReceptionStatus.CONFIRMED) {
+            return 0;
         }
-        
-        // CONFIRMED 상태인 경우 확인된 순서대로 대기 순번 계산
-        if (reception.getStatus() == Reception.ReceptionStatus.CONFIRMED) {
-            List<Reception> confirmedReceptions = receptionRepository.findByStatusOrderByConfirmedAtAsc(Reception.ReceptionStatus.CONFIRMED);
-            for (int i = 0; i < confirmedReceptions.size(); i++) {
-                if (confirmedReceptions.get(i).getId().equals(reception.getId())) {
-                    return i + 1;
-                }
-            }
+        return waitingQueueIndex.getWaitingPosition(reception.getId());
+    }
+    
+    /**
+     * 이미 대기 순서대로 정렬된 목록을 한 번에 변환 (순번은 목록 순서로 부여)
+     */
+    private List<ReceptionResponse> convertToReceptionResponses(List<Reception> orderedReceptions, int positionOffset) {
+        List<ReceptionResponse> responses = new ArrayList<>(orderedReceptions.size());
+        for (int i = 0; i < orderedReceptions.size(); i++) {
+            responses.add(convertToReceptionResponse(orderedReceptions.get(i), positionOffset + i + 1));
         }
-        
-        // CALLED 또는 COMPLETED 상태인 경우 대기 순번 없음
-        return 0;
+        return responses;
     }
     
     private ReceptionResponse convertToReceptionResponse(Reception reception) {
+        return convertToReceptionResponse(reception, calculateWaitingPosition(reception));
+    }
+    
+    private ReceptionResponse convertToReceptionResponse(Reception reception, int waitingPosition) {
         return ReceptionResponse.builder()
             .id(reception.getId())
             .patientId(reception.getPatient().getId())
@@ -587,11 +600,13 @@ public class ReceptionService {
             .phoneNumber(reception.getPatient().getPhoneNumber())
             .status(reception.getStatus())
             .isGuardian(reception.getIsGuardian())
+            .priorityLane(reception.getPriorityLane())
             .createdAt(reception.getCreatedAt())
             .confirmedAt(reception.getConfirmedAt())
             .calledAt(reception.getCalledAt())
             .completedAt(reception.getCompletedAt())
-            .waitingPosition(calculateWaitingPosition(reception))
+            .roomNumber(reception.getRoomNumber())
+            .waitingPosition(waitingPosition)
             .build();
     }
     
@@ -631,21 +646,51 @@ public class ReceptionService {
      */
     @Transactional
     public void updateSmsNotification(Long receptionId, Boolean enabled) {
-        Reception reception = receptionRepository.findById(receptionId)
-            .orElseThrow(() -> new RuntimeException("접수를 찾을 수 없습니다."));
-        
-        reception.setSmsNotificationEnabled(enabled);
-        receptionRepository.save(reception);
+        // 설정 컬럼만 갱신하여 동시에 진행 중인 상태 변경을 덮어쓰지 않음
+        if (receptionRepository.updateSmsNotificationEnabled(receptionId, enabled) == 0) {
+            throw new RuntimeException("접수를 찾을 수 없습니다.");
+        }
         
         log.info("SMS 알림 설정 업데이트: 접수 ID {}, 활성화 여부 {}", receptionId, enabled);
         
         // SMS 설정 변경 후 대기열 체크
         if (Boolean.TRUE.equals(enabled)) {
-            waitingQueueService.checkAndSendSmsNotifications();
+            afterCommitExecutor.executeAsync(waitingQueueService::checkAndSendSmsNotifications);
         }
     }
 
     public Reception save(Reception reception) {
         return receptionRepository.save(reception);
     }
+    
+    /**
+     * 조건부 UPDATE로 상태 전이 (읽은 상태와 버전이 그대로일 때만 반영)
+     * 다른 요청이 먼저 행을 바꿔 버전이 달라졌으면 다시 읽어서 최대 MAX_TRANSITION_ATTEMPTS회까지 재시도한다.
+     * 상태 자체가 바뀌었으면 재시도하지 않고 바로 실패한다.
+     */
+    private Reception transitionWithRetry(Long receptionId, Reception.ReceptionStatus expectedStatus, String invalidStatusMessage,
+                                          Function<Reception, Integer> conditionalUpdate) {
+        return updateWithRetry(receptionId, current -> {
+            if (current.getStatus() != expectedStatus) {
+                throw new RuntimeException(invalidStatusMessage);
+            }
+            return conditionalUpdate.apply(current);
+        });
+    }
+    
+    /**
+     * 읽은 버전 기준 조건부 UPDATE를 충돌 시 다시 읽어 재시도 (상태 조건 없이 버전만 확인)
+     */
+    private Reception updateWithRetry(Long receptionId, Function<Reception, Integer> conditionalUpdate) {
+        for (int attempt = 1; attempt <= MAX_TRANSITION_ATTEMPTS; attempt++) {
+            Reception current = receptionRepository.findById(receptionId)
+                .orElseThrow(() -> new RuntimeException("접수를 찾을 수 없습니다."));
+            if (conditionalUpdate.apply(current) == 1) {
+                return receptionRepository.findByIdWithPatient(receptionId)
+                    .orElseThrow(() -> new RuntimeException("접수를 찾을 수 없습니다."));
+            }
+            log.debug("접수 상태 변경 충돌, 재시도: 접수 ID {} ({}회)", receptionId, attempt);
+        }
+        throw new RuntimeException("다른 요청과 동시에 처리되어 상태를 변경하지 못했습니다. 다시 시도해주세요.");
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,147 @@
+package org.example.service;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.model.RuntimeSetting;
+import org.example.repository.RuntimeSettingRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * 실행 중 변경 가능한 설정 저장소
+ * 값은 runtime_settings 테이블에 저장하고, 각 서버는 읽기 전용 사본을 volatile 참조 하나로 들고 있어
+ * 조회 시 락 없이 읽는다. 다른 서버의 변경은 주기 조회(기본 1초)로 version을 비교해 반영하며,
+ * 값이 바뀌면 RuntimeSettingsChanged 이벤트를 발행한다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RuntimeSettingsService {
+
+    public static final String SMS_SIMULATION_MODE = "sms.simulation-mode";
+    public static final String SMS_NOTIFY_TIMING = "sms.notify-timing";
+
+    private final RuntimeSettingRepository runtimeSettingRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // 설정 키 -> 값 (바뀔 때마다 새 맵으로 교체)
+    private volatile Map<String, String> values = Collections.emptyMap();
+
+    // 설정 키 -> 마지막으로 반영한 version (refresh 안에서만 사용)
+    private final Map<String, Long> versions = new HashMap<>();
+
+    @PostConstruct
+    public void init() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            // 조회에 실패해도 기본값으로 시작하고 다음 주기에 다시 읽는다
+            log.warn("실행 설정 초기 조회 실패: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 다른 서버에서 바뀐 설정 반영
+     */
+    @Scheduled(fixedDelayString = "${runtime-settings.poll-interval-ms:1000}")
+    public void poll() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            log.warn("실행 설정 조회 실패: {}", e.getMessage());
+        }
+    }
+
+    public String getString(String key, String defaultValue) {
+        String value = values.get(key);
+        return value != null ? value : defaultValue;
+    }
+
+    public int getInt(String key, int defaultValue) {
+        String value = values.get(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    public boolean getBoolean(String key, boolean defaultValue) {
+        String value = values.get(key);
+        return value != null ? Boolean.parseBoolean(value.trim()) : defaultValue;
+    }
+
+    /**
+     * 설정 저장 후 이 서버에는 바로 반영 (다른 서버는 다음 조회 주기에 반영)
+     */
+    public void put(String key, String value) {
+        if (runtimeSettingRepository.upsert(key, value, LocalDateTime.now()) > 0) {
+            refresh();
+        }
+    }
+
+    /**
+     * DB 설정을 읽어 version이 바뀐 항목만 교체
+     * 삭제 후 다시 추가된 설정은 version이 1부터 다시 시작하므로, 크기가 아니라 같은지로 비교한다.
+     */
+    private synchronized void refresh() {
+        Map<String, String> next = null;
+        Set<String> changedKeys = new HashSet<>();
+        Set<String> seenKeys = new HashSet<>();
+        for (RuntimeSetting setting : runtimeSettingRepository.findAll()) {
+            String key = setting.getSettingKey();
+            seenKeys.add(key);
+            Long known = versions.get(key);
+            if (known != null && known == setting.getVersion()
+                    && Objects.equals(values.get(key), setting.getSettingValue())) {
+                continue;
+            }
+            if (next == null) {
+                next = new HashMap<>(values);
+            }
+            next.put(key, setting.getSettingValue());
+            versions.put(key, setting.getVersion());
+            changedKeys.add(key);
+        }
+        for (String key : new HashSet<>(versions.keySet())) {
+            if (!seenKeys.contains(key)) {
+                // 직접 삭제된 설정은 기본값으로 되돌림
+                if (next == null) {
+                    next = new HashMap<>(values);
+                }
+                next.remove(key);
+                versions.remove(key);
+                changedKeys.add(key);
+            }
+        }
+        if (next == null) {
+            return;
+        }
+        values = Collections.unmodifiableMap(next);
+        log.info("실행 설정 반영: {}", changedKeys);
+        eventPublisher.publishEvent(new RuntimeSettingsChanged(Collections.unmodifiableSet(changedKeys)));
+    }
+
+    /**
+     * 실행 설정 변경 이벤트
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class RuntimeSettingsChanged {
+        private final Set<String> keys;
+    }
+}
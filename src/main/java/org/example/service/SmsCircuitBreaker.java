@@ -0,0 +1,83 @@
+package org.example.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.config.SmsClientConfig;
+import org.springframework.stereotype.Component;
+
+/**
+ * SMS 제공자 차단기
+ * 연속 실패(느린 응답 포함)가 기준에 이르면 일정 시간 호출을 막고(OPEN),
+ * 시간이 지나면 한 건만 시험 호출하여(HALF_OPEN) 성공하면 정상(CLOSED)으로 되돌린다.
+ * 차단 중에는 발송 요청이 sms_outbox에 PENDING으로 남아 있다가 복구 후 발송된다.
+ */
+@Component
+@Slf4j
+public class SmsCircuitBreaker {
+
+    public enum State {
+        CLOSED,      // 정상 호출
+        OPEN,        // 호출 차단
+        HALF_OPEN    // 시험 호출 한 건 진행 중
+    }
+
+    private final SmsClientConfig smsClientConfig;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+
+    public SmsCircuitBreaker(SmsClientConfig smsClientConfig) {
+        this.smsClientConfig = smsClientConfig;
+    }
+
+    /**
+     * 지금 호출해도 되는지 확인 (차단 시간이 지났으면 시험 호출 한 건만 허용)
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.CLOSED) {
+            return true;
+        }
+        if (state == State.OPEN && System.currentTimeMillis() - openedAt >= smsClientConfig.getOpenDurationMs()) {
+            state = State.HALF_OPEN;
+            log.info("SMS 제공자 시험 호출");
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 다음 조회에서 발송을 시도할 수 있는지 (상태는 바꾸지 않음)
+     */
+    public synchronized boolean isCallPermitted() {
+        return state == State.CLOSED
+            || (state == State.OPEN && System.currentTimeMillis() - openedAt >= smsClientConfig.getOpenDurationMs());
+    }
+
+    /**
+     * 호출 결과 기록
+     * @param elapsedMs 응답까지 걸린 시간
+     */
+    public synchronized void record(boolean success, long elapsedMs) {
+        boolean slow = elapsedMs > smsClientConfig.getSlowCallMs();
+        if (success && !slow) {
+            if (state != State.CLOSED) {
+                log.info("SMS 제공자 차단 해제");
+            }
+            state = State.CLOSED;
+            consecutiveFailures = 0;
+            return;
+        }
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= smsClientConfig.getFailureThreshold()) {
+            if (state != State.OPEN) {
+                log.warn("SMS 제공자 차단: 연속 실패 {}회 (마지막 응답 {}ms)", consecutiveFailures, elapsedMs);
+            }
+            state = State.OPEN;
+            openedAt = System.currentTimeMillis();
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+}
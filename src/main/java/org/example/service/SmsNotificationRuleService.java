@@ -0,0 +1,242 @@
+package org.example.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.config.SmsRuleConfig;
+import org.example.dto.QueueDeltaEvent;
+import org.example.model.Reception;
+import org.example.model.Reception.ReceptionStatus;
+import org.example.repository.ReceptionRepository;
+import org.example.repository.SmsOutboxRepository;
+import org.example.service.RuntimeSettingsService.RuntimeSettingsChanged;
+import org.example.service.WaitingQueueIndex.QueueKey;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 순번 알림 SMS 규칙 평가 서비스
+ * 대기열 변경 이벤트를 받아 알림 순번(예: 5번째, 2번째) 앞쪽이 바뀌었을 때만
+ * 인덱스에서 가장 뒤 알림 순번까지의 CONFIRMED 접수를 보고, 새로 알림 순번 안에 들어선 접수만 조회해 발송 요청을 등록한다.
+ * 순번을 한 번에 여러 칸 건너뛰거나 여러 변경이 한 번의 평가로 합쳐져도 넘어선 알림 순번을 놓치지 않는다.
+ * 같은 접수, 같은 확인 시각, 같은 순번의 알림은 idempotency key로 한 번만 등록된다.
+ */
+@Service
+@Slf4j
+public class SmsNotificationRuleService {
+
+    private final WaitingQueueIndex waitingQueueIndex;
+    private final ReceptionRepository receptionRepository;
+    private final SmsOutboxRepository smsOutboxRepository;
+    private final SmsOutboxDispatcher smsOutboxDispatcher;
+    private final SmsService smsService;
+    private final SmsRuleConfig smsRuleConfig;
+    private final TaskExecutor sideEffectExecutor;
+
+    // 알림 순번 -> 그 순번 안에 들어와 알림을 등록한 접수 ID (알림 범위를 벗어나면 지움)
+    private final Map<Integer, Set<Long>> notified = new HashMap<>();
+
+    // 평가가 이미 예약되어 있으면 이벤트가 몰려도 한 번만 실행
+    private final AtomicBoolean evaluationScheduled = new AtomicBoolean(false);
+
+    public SmsNotificationRuleService(WaitingQueueIndex waitingQueueIndex,
+                                      ReceptionRepository receptionRepository,
+                                      SmsOutboxRepository smsOutboxRepository,
+                                      SmsOutboxDispatcher smsOutboxDispatcher,
+                                      SmsService smsService,
+                                      SmsRuleConfig smsRuleConfig,
+                                      @Qualifier("sideEffectExecutor") TaskExecutor sideEffectExecutor) {
+        this.waitingQueueIndex = waitingQueueIndex;
+        this.receptionRepository = receptionRepository;
+        this.smsOutboxRepository = smsOutboxRepository;
+        this.smsOutboxDispatcher = smsOutboxDispatcher;
+        this.smsService = smsService;
+        this.smsRuleConfig = smsRuleConfig;
+        this.sideEffectExecutor = sideEffectExecutor;
+    }
+
+    /**
+     * 대기열 변경 이벤트 수신 (커밋 직후 커밋한 스레드에서 호출되므로 판단만 하고 작업은 넘긴다)
+     * CONFIRMED 대기열에서 가장 뒤 알림 순번보다 앞쪽이 바뀐 경우에만 평가한다.
+     */
+    @EventListener
+    public void onQueueDelta(QueueDeltaEvent event) {
+        int lastThreshold = 0;
+        for (int position : thresholds()) {
+            lastThreshold = Math.max(lastThreshold, position);
+        }
+        if (touchesConfirmedRank(event.getFromStatus(), event.getFromPosition(), lastThreshold)
+                || touchesConfirmedRank(event.getToStatus(), event.getToPosition(), lastThreshold)) {
+            requestEvaluation();
+        }
+
+        if (smsRuleConfig.isOnCall()
+                && event.getToStatus() == ReceptionStatus.CALLED
+                && event.getFromStatus() != ReceptionStatus.CALLED) {
+            Long receptionId = event.getReceptionId();
+            sideEffectExecutor.execute(() -> {
+                try {
+                    enqueueCallNotice(receptionId);
+                } catch (Exception e) {
+                    log.error("호출 SMS 등록 실패: 접수 ID {}, {}", receptionId, e.getMessage());
+                }
+            });
+        }
+    }
+
+    /**
+     * 발송 시점 설정이 바뀌면 (다른 서버에서 바뀐 경우 포함) 새 순번 기준으로 다시 확인
+     */
+    @EventListener
+    public void onSettingsChanged(RuntimeSettingsChanged event) {
+        if (event.getKeys().contains(RuntimeSettingsService.SMS_NOTIFY_TIMING)) {
+            requestEvaluation();
+        }
+    }
+
+    /**
+     * 가장 뒤 알림 순번까지의 CONFIRMED 접수를 확인하고, 새로 넘어선 알림 순번이 있는 접수에 발송 요청 등록
+     * 한 번에 여러 알림 순번을 넘어선 접수(예: 7번째 -> 1번째)는 가장 가까운 순번의 알림 한 건만 등록하고
+     * 나머지 순번도 보낸 것으로 기록한다.
+     * @param force true면 이미 기록된 접수도 다시 확인 (SMS 알림 설정 변경 시, 중복은 idempotency key로 걸러짐)
+     */
+    public synchronized void evaluate(boolean force) {
+        List<Integer> thresholds = new ArrayList<>(thresholds());
+        Collections.sort(thresholds);
+        notified.keySet().retainAll(thresholds);
+        if (thresholds.isEmpty()) {
+            return;
+        }
+
+        List<Long> ranked = new ArrayList<>();
+        for (QueueKey key : waitingQueueIndex.head(thresholds.get(thresholds.size() - 1))) {
+            if (key.getStatus() == ReceptionStatus.CONFIRMED) {
+                ranked.add(key.getId());
+            }
+        }
+        // 알림 범위를 벗어난 접수는 지워 다시 들어오면 다시 확인한다
+        for (Set<Long> ids : notified.values()) {
+            ids.retainAll(ranked);
+        }
+
+        for (int i = 0; i < ranked.size(); i++) {
+            Long receptionId = ranked.get(i);
+            int rank = i + 1;
+            List<Integer> crossed = new ArrayList<>();
+            for (int position : thresholds) {
+                if (position >= rank) {
+                    crossed.add(position);
+                }
+            }
+            int nearest = crossed.get(0);
+            if (!force && notifiedFor(nearest).contains(receptionId)) {
+                // 더 먼 순번은 가까운 순번 알림으로 대신한다
+                for (int position : crossed) {
+                    notifiedFor(position).add(receptionId);
+                }
+                continue;
+            }
+            try {
+                enqueueWaitingNotice(receptionId, nearest, rank);
+                // 등록에 성공한 뒤에만 기록 (실패하면 다음 평가에서 다시 시도)
+                for (int position : crossed) {
+                    notifiedFor(position).add(receptionId);
+                }
+            } catch (Exception e) {
+                log.error("순번 SMS 등록 실패: 접수 ID {}, {}번째, {}", receptionId, rank, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 현재 적용 중인 알림 순번 (설정이 없으면 간호사 화면에서 정한 발송 시점)
+     */
+    public List<Integer> thresholds() {
+        List<Integer> positions = smsRuleConfig.getPositions();
+        if (positions == null || positions.isEmpty()) {
+            return Collections.singletonList(smsService.getSmsNotifyTiming());
+        }
+        List<Integer> result = new ArrayList<>(positions.size());
+        for (Integer position : positions) {
+            if (position != null && position >= 1 && !result.contains(position)) {
+                result.add(position);
+            }
+        }
+        return result;
+    }
+
+    private Set<Long> notifiedFor(int position) {
+        return notified.computeIfAbsent(position, p -> new HashSet<>());
+    }
+
+    private void requestEvaluation() {
+        if (!evaluationScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        sideEffectExecutor.execute(() -> {
+            evaluationScheduled.set(false);
+            try {
+                evaluate(false);
+            } catch (Exception e) {
+                log.error("SMS 알림 규칙 평가 실패: {}", e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * CONFIRMED 대기열에서 position 이하의 순번이 바뀌면 그 뒤 순번이 모두 밀리거나 당겨진다
+     */
+    private static boolean touchesConfirmedRank(ReceptionStatus status, int position, int lastThreshold) {
+        return status == ReceptionStatus.CONFIRMED && position >= 1 && position <= lastThreshold;
+    }
+
+    /**
+     * @param position 넘어선 알림 순번 (idempotency key에 사용)
+     * @param rank 현재 대기 순번 (안내 문구에 사용)
+     */
+    private void enqueueWaitingNotice(Long receptionId, int position, int rank) {
+        Reception reception = receptionRepository.findByIdWithPatient(receptionId).orElse(null);
+        // 이벤트 처리 사이에 호출, 취소된 접수는 건너뜀
+        if (reception == null || reception.getStatus() != ReceptionStatus.CONFIRMED
+                || !Boolean.TRUE.equals(reception.getSmsNotificationEnabled())) {
+            return;
+        }
+        String idempotencyKey = "WAITING:" + reception.getId() + ":"
+            + (reception.getConfirmedAt() != null ? reception.getConfirmedAt() : reception.getServiceDate())
+            + ":" + position;
+        enqueue(reception, idempotencyKey, smsService.waitingText(reception.getPatient().getName(), rank));
+    }
+
+    private void enqueueCallNotice(Long receptionId) {
+        Reception reception = receptionRepository.findByIdWithPatient(receptionId).orElse(null);
+        if (reception == null || reception.getStatus() != ReceptionStatus.CALLED
+                || !Boolean.TRUE.equals(reception.getSmsNotificationEnabled())) {
+            return;
+        }
+        String idempotencyKey = "CALL:" + reception.getId() + ":" + reception.getCalledAt();
+        enqueue(reception, idempotencyKey, smsService.callText(reception.getPatient().getName(), reception.getRoomNumber()));
+    }
+
+    private void enqueue(Reception reception, String idempotencyKey, String text) {
+        String phoneNumber = reception.getPatient().getPhoneNumber();
+        String patientName = reception.getPatient().getName();
+        if (!smsService.isValidPhoneNumber(phoneNumber)) {
+            log.warn("유효하지 않은 전화번호: {} ({})", patientName, phoneNumber);
+            return;
+        }
+        if (smsOutboxRepository.enqueue(idempotencyKey, reception.getId(), phoneNumber, patientName, text, LocalDateTime.now()) > 0) {
+            log.info("SMS 발송 요청 등록: {} ({}) {}", patientName, phoneNumber, idempotencyKey);
+            smsOutboxDispatcher.requestDispatch();
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package org.example.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.config.SmsOutboxConfig;
+import org.example.model.SmsOutbox;
+import org.example.model.SmsOutbox.OutboxStatus;
+import org.example.repository.SmsOutboxRepository;
+import org.example.service.SmsService.BatchResult;
+import org.example.service.SmsService.SendResult;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * SMS 발송기
+ * sms_outbox에 쌓인 요청을 주기적으로 가져가 별도 스레드 풀에서 발송한다.
+ * 실패하면 지수 백오프로 다시 시도하며, 요청 처리 트랜잭션은 SMS 제공자 응답을 기다리지 않는다.
+ * 일괄 발송 모드에서는 등록 후 짧은 구간(sms.outbox.batch-window-ms) 동안 모인 요청을 다건 발송 API 한 번으로 보낸다.
+ */
+@Service
+@Slf4j
+public class SmsOutboxDispatcher {
+
+    private final SmsOutboxRepository smsOutboxRepository;
+    private final SmsService smsService;
+    private final SmsOutboxConfig smsOutboxConfig;
+    private final ThreadPoolTaskExecutor smsDispatchExecutor;
+
+    // 조회는 한 번에 하나만 (주기 실행과 등록 직후 실행이 겹치지 않도록)
+    private final AtomicBoolean dispatching = new AtomicBoolean();
+    // 등록 직후 실행이 이미 예약되어 있는지 (구간 동안 등록된 요청은 한 번에 처리)
+    private final AtomicBoolean dispatchScheduled = new AtomicBoolean();
+    private final ScheduledExecutorService windowScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "sms-batch-window");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicLong sentCount = new AtomicLong();
+    private final AtomicLong failedAttemptCount = new AtomicLong();
+    private final AtomicLong providerRequestCount = new AtomicLong();
+    private final AtomicLong providerTimeMs = new AtomicLong();
+
+    public SmsOutboxDispatcher(SmsOutboxRepository smsOutboxRepository,
+                               SmsService smsService,
+                               SmsOutboxConfig smsOutboxConfig,
+                               @Qualifier("smsDispatchExecutor") ThreadPoolTaskExecutor smsDispatchExecutor) {
+        this.smsOutboxRepository = smsOutboxRepository;
+        this.smsService = smsService;
+        this.smsOutboxConfig = smsOutboxConfig;
+        this.smsDispatchExecutor = smsDispatchExecutor;
+    }
+
+    /**
+     * 새 요청이 등록되었을 때 발송 예약 (일괄 발송 모드면 구간이 끝날 때 한 번만 실행)
+     */
+    public void requestDispatch() {
+        if (!dispatchScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        long delayMs = smsOutboxConfig.isBatchMode() ? smsOutboxConfig.getBatchWindowMs() : 0;
+        windowScheduler.schedule(() -> {
+            dispatchScheduled.set(false);
+            dispatch();
+        }, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 발송 시각이 된 요청을 가져가 발송 스레드에 넘김
+     */
+    @Scheduled(fixedDelayString = "${sms.outbox.poll-interval-ms:1000}")
+    public void dispatch() {
+        if (!dispatching.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            int recovered = smsOutboxRepository.recoverStale(now.minusMinutes(smsOutboxConfig.getStaleSendingMinutes()), now);
+            if (recovered > 0) {
+                log.warn("발송 중 중단된 SMS {}건을 다시 발송 대기로 전환", recovered);
+            }
+
+            // 제공자가 차단 중이면 요청을 PENDING으로 남겨 두어 시도 횟수를 쓰지 않는다
+            if (!smsService.isProviderAvailable()) {
+                return;
+            }
+            // 작업 큐에 들어갈 수 있는 만큼만 가져가고, 복구 확인 중에는 한 건만 보낸다
+            int capacity = smsDispatchExecutor.getThreadPoolExecutor().getQueue().remainingCapacity();
+            int limit = smsService.isProviderDegraded() ? 1 : Math.min(smsOutboxConfig.getBatchSize(), capacity);
+            if (limit <= 0) {
+                return;
+            }
+            List<Long> ids = smsOutboxRepository.claimDue(now, limit);
+            if (ids.isEmpty()) {
+                return;
+            }
+            List<SmsOutbox> messages = smsOutboxRepository.findAllById(ids);
+            if (smsOutboxConfig.isBatchMode() && messages.size() > 1) {
+                try {
+                    smsDispatchExecutor.execute(() -> deliverBatch(messages));
+                } catch (TaskRejectedException e) {
+                    smsOutboxRepository.release(ids, now);
+                }
+                return;
+            }
+            for (SmsOutbox message : messages) {
+                try {
+                    smsDispatchExecutor.execute(() -> deliver(message));
+                } catch (TaskRejectedException e) {
+                    smsOutboxRepository.release(Collections.singletonList(message.getId()), now);
+                }
+            }
+        } catch (Exception e) {
+            log.error("SMS 발송 대기열 처리 중 오류 발생: {}", e.getMessage());
+        } finally {
+            dispatching.set(false);
+        }
+    }
+
+    /**
+     * 상태별 발송 요청 수
+     */
+    public Map<OutboxStatus, Long> getStatusCounts() {
+        Map<OutboxStatus, Long> counts = new EnumMap<>(OutboxStatus.class);
+        for (OutboxStatus status : OutboxStatus.values()) {
+            counts.put(status, smsOutboxRepository.countByStatus(status));
+        }
+        return counts;
+    }
+
+    /**
+     * 발송 처리량 (제공자 요청 수 대비 발송 건수, 요청당 평균 소요 시간)
+     */
+    public Map<String, Object> getThroughput() {
+        long requests = providerRequestCount.get();
+        Map<String, Object> throughput = new HashMap<>();
+        throughput.put("batchMode", smsOutboxConfig.isBatchMode());
+        throughput.put("sent", sentCount.get());
+        throughput.put("failedAttempts", failedAttemptCount.get());
+        throughput.put("providerRequests", requests);
+        throughput.put("avgRequestMs", requests > 0 ? providerTimeMs.get() / requests : 0);
+        return throughput;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        windowScheduler.shutdown();
+    }
+
+    private void deliver(SmsOutbox message) {
+        String error = null;
+        SendResult result;
+        long startedAt = System.currentTimeMillis();
+        try {
+            result = smsService.sendWaitingNotification(message);
+        } catch (Exception e) {
+            result = SendResult.FAILED;
+            error = e.getMessage();
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        if (result == SendResult.NOT_ATTEMPTED) {
+            // 가져간 사이 차단된 경우: 시도 횟수와 백오프를 쓰지 않고 그대로 대기로 되돌린다
+            smsOutboxRepository.release(Collections.singletonList(message.getId()), now);
+            return;
+        }
+        recordRequest(startedAt);
+        if (result == SendResult.SENT) {
+            // 발송 완료와 접수의 SMS 발송 표시를 함께 갱신
+            smsOutboxRepository.markSent(Collections.singletonList(message.getId()), now);
+            sentCount.incrementAndGet();
+            return;
+        }
+        handleFailure(message, error != null ? error : "SMS 발송 실패", now);
+    }
+
+    /**
+     * 일괄 발송 후 수신자별 결과 반영 (성공한 요청만 발송 완료, 나머지는 각각 재시도)
+     */
+    private void deliverBatch(List<SmsOutbox> messages) {
+        Map<Long, String> failures;
+        long startedAt = System.currentTimeMillis();
+        try {
+            BatchResult result = smsService.sendWaitingNotifications(messages);
+            if (!result.isAttempted()) {
+                List<Long> ids = new ArrayList<>(messages.size());
+                for (SmsOutbox message : messages) {
+                    ids.add(message.getId());
+                }
+                smsOutboxRepository.release(ids, LocalDateTime.now());
+                return;
+            }
+            failures = result.getFailures();
+        } catch (Exception e) {
+            failures = new HashMap<>();
+            for (SmsOutbox message : messages) {
+                failures.put(message.getId(), e.getMessage() != null ? e.getMessage() : "SMS 발송 실패");
+            }
+        }
+        recordRequest(startedAt);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> sentIds = new ArrayList<>(messages.size());
+        for (SmsOutbox message : messages) {
+            String error = failures.get(message.getId());
+            if (error == null) {
+                sentIds.add(message.getId());
+            } else {
+                handleFailure(message, error, now);
+            }
+        }
+        if (!sentIds.isEmpty()) {
+            smsOutboxRepository.markSent(sentIds, now);
+            sentCount.addAndGet(sentIds.size());
+        }
+    }
+
+    private void recordRequest(long startedAt) {
+        providerRequestCount.incrementAndGet();
+        providerTimeMs.addAndGet(System.currentTimeMillis() - startedAt);
+    }
+
+    private void handleFailure(SmsOutbox message, String error, LocalDateTime now) {
+        failedAttemptCount.incrementAndGet();
+        if (message.getAttempts() >= smsOutboxConfig.getMaxAttempts()) {
+            smsOutboxRepository.markFailed(message.getId(), truncate(error), now);
+            log.error("SMS 발송 최종 실패: 접수 ID {}, {}회 시도", message.getReceptionId(), message.getAttempts());
+            return;
+        }
+        long backoffMs = backoffMs(message.getAttempts());
+        smsOutboxRepository.markRetry(message.getId(), now.plusNanos(backoffMs * 1_000_000), truncate(error), now);
+        log.warn("SMS 발송 실패, {}ms 후 재시도: 접수 ID {} ({}회 시도)", backoffMs, message.getReceptionId(), message.getAttempts());
+    }
+
+    /**
+     * 재시도 간격: 초기 간격 × 2^(시도 횟수 - 1), 최대 간격 제한, 동시에 몰리지 않도록 최대 20% 가감
+     */
+    private long backoffMs(int attempts) {
+        long backoff = smsOutboxConfig.getInitialBackoffMs() << Math.min(Math.max(attempts - 1, 0), 20);
+        backoff = Math.min(backoff, smsOutboxConfig.getMaxBackoffMs());
+        long jitter = backoff / 5;
+        return jitter > 0 ? backoff - jitter + ThreadLocalRandom.current().nextLong(jitter * 2 + 1) : backoff;
+    }
+
+    private static String truncate(String error) {
+        return error.length() > 500 ? error.substring(0, 500) : error;
+    }
+}
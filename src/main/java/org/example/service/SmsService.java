@@ -1,9 +1,16 @@
 package org.example.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.model.SmsOutbox;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 
 import javax.crypto.Mac;
@@ -15,7 +22,10 @@ import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -31,77 +41,193 @@ public class SmsService {
     @Value("${sms.api.from}")
     private String fromNumber;
     
+    @Value("${sms.api.domain:https://api.coolsms.co.kr}")
+    private String apiDomain;
+    
     private final RestTemplate restTemplate;
+    private final SmsCircuitBreaker circuitBreaker;
+    private final ObjectMapper objectMapper;
+    
+    // SMS 모드, 발송 시점은 모든 서버가 공유하는 실행 설정에 저장
+    private final RuntimeSettingsService runtimeSettings;
     
     // SMS 모드 설정 (시뮬레이션 모드 기본값: true)
-    private boolean simulationMode = true;
+    private static final boolean DEFAULT_SIMULATION_MODE = true;
     
     // SMS 알림 발송 시점 (기본값: 2번째 순서)
-    private int smsNotifyTiming = 2;
+    private static final int DEFAULT_NOTIFY_TIMING = 2;
+    
+    // 다건 발송 결과를 요청과 맞추기 위해 메시지마다 넣는 사용자 정의 필드
+    private static final String OUTBOX_ID_FIELD = "outboxId";
     
-    public SmsService() {
-        this.restTemplate = new RestTemplate();
+    /**
+     * 발송 결과
+     */
+    public enum SendResult {
+        SENT,           // 발송 성공
+        FAILED,         // 제공자 호출 실패 또는 거부
+        NOT_ATTEMPTED   // 차단 중이라 제공자를 호출하지 않음 (시도 횟수에 넣지 않는다)
+    }
+    
+    public SmsService(@Qualifier("smsRestTemplate") RestTemplate restTemplate, SmsCircuitBreaker circuitBreaker,
+                      ObjectMapper objectMapper, RuntimeSettingsService runtimeSettings) {
+        this.restTemplate = restTemplate;
+        this.circuitBreaker = circuitBreaker;
+        this.objectMapper = objectMapper;
+        this.runtimeSettings = runtimeSettings;
     }
     
     /**
-     * SMS 발송 메서드
+     * SMS 발송 메서드 (기본 대기 안내 문구)
      * @param phoneNumber 수신자 전화번호
      * @param patientName 환자 이름
      * @return 발송 성공 여부
      */
     public boolean sendWaitingNotification(String phoneNumber, String patientName) {
+        return sendWaitingNotification(null, phoneNumber, patientName, null) == SendResult.SENT;
+    }
+    
+    /**
+     * 발송 요청에 담긴 문구로 SMS 발송
+     */
+    public SendResult sendWaitingNotification(SmsOutbox message) {
+        return sendWaitingNotification(message.getId(), message.getPhoneNumber(), message.getPatientName(), message.getMessageText());
+    }
+    
+    private SendResult sendWaitingNotification(Long outboxId, String phoneNumber, String patientName, String text) {
         // 시뮬레이션 모드인 경우 실제 발송하지 않고 로그만 출력
-        if (simulationMode) {
+        if (isSimulationMode()) {
             log.info("[시뮬레이션 모드] SMS 발송: {} -> {} (실제 발송 없음)", phoneNumber, patientName);
-            return true;
+            return SendResult.SENT;
+        }
+        
+        if (!circuitBreaker.tryAcquire()) {
+            log.warn("SMS 제공자 차단 중으로 발송 보류: {}", patientName);
+            return SendResult.NOT_ATTEMPTED;
         }
         
+        long startedAt = System.currentTimeMillis();
+        boolean responded = false;
         try {
-            String message = String.format("[병원 알림] %s님, 앞에 대기인원이 1명 남았습니다. 병원 내에서 대기해주세요.", patientName);
-            
-            // 현재 시간을 ISO 8601 형식으로 생성
-            String timestamp = ZonedDateTime.now(ZoneId.of("Asia/Seoul"))
-                    .format(DateTimeFormatter.ISO_OFFSET_DATE_TIME);
-            
-            String salt = String.valueOf(System.nanoTime());
-            
-            // 서명 생성을 위한 문자열
-            String data = timestamp + salt;
-            String signature = generateHmacSha256(data, apiSecret);
-            
             Map<String, Object> requestBody = new HashMap<>();
-            requestBody.put("message", new HashMap<String, Object>() {{
-                put("to", phoneNumber);
-                put("from", fromNumber);
-                put("text", message);
-            }});
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.set("Authorization", String.format("HMAC-SHA256 =%s, date=%s, salt=%s, signature=%s", 
-                    apiKey, timestamp, salt, signature));
+            requestBody.put("message", buildMessage(outboxId, phoneNumber, patientName, text));
             
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
+            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, createAuthHeaders());
             
             ResponseEntity<String> response = restTemplate.exchange(
-                "https://api.coolsms.co.kr/messages/v4/send",
+                apiDomain + "/messages/v4/send",
                 HttpMethod.POST,
                 entity,
                 String.class
             );
+            responded = true;
             
-            if (response.getStatusCode() == HttpStatus.OK) {
+            if (response.getStatusCode().is2xxSuccessful()) {
                 log.info("SMS 발송 성공: {} -> {}", phoneNumber, patientName);
-                return true;
+                return SendResult.SENT;
             } else {
                 log.error("SMS 발송 실패: {}", response.getBody());
-                return false;
+                return SendResult.FAILED;
             }
             
+        } catch (HttpClientErrorException e) {
+            // 요청 내용 문제(4xx)는 제공자가 정상 응답한 것이므로 차단 판단에 넣지 않는다
+            responded = true;
+            log.error("SMS 발송 거부: {} {}", e.getStatusCode(), e.getResponseBodyAsString());
+            return SendResult.FAILED;
         } catch (Exception e) {
             log.error("SMS 발송 중 오류 발생: {}", e.getMessage());
-            return false;
+            return SendResult.FAILED;
+        } finally {
+            circuitBreaker.record(responded, System.currentTimeMillis() - startedAt);
+        }
+    }
+    
+    /**
+     * 여러 건 일괄 발송 (제공자의 다건 발송 API로 한 번에 요청, 서명도 한 번만 생성)
+     * 메시지마다 요청 ID를 사용자 정의 필드로 넣어, 제공자가 돌려준 실패 목록을 요청과 정확히 맞춘다.
+     * @param messages 발송할 요청들
+     * @return 실패한 요청 ID와 사유 (비어 있으면 모두 성공), 차단 중이면 시도하지 않았다는 결과
+     */
+    public BatchResult sendWaitingNotifications(List<SmsOutbox> messages) {
+        Map<Long, String> failures = new HashMap<>();
+        if (messages.isEmpty()) {
+            return new BatchResult(true, failures);
+        }
+        if (isSimulationMode()) {
+            log.info("[시뮬레이션 모드] SMS 일괄 발송: {}건 (실제 발송 없음)", messages.size());
+            return new BatchResult(true, failures);
+        }
+        if (!circuitBreaker.tryAcquire()) {
+            log.warn("SMS 제공자 차단 중으로 일괄 발송 보류: {}건", messages.size());
+            return new BatchResult(false, Collections.emptyMap());
+        }
+        
+        long startedAt = System.currentTimeMillis();
+        boolean responded = false;
+        try {
+            List<Map<String, Object>> messageList = new ArrayList<>(messages.size());
+            for (SmsOutbox message : messages) {
+                messageList.add(buildMessage(message.getId(), message.getPhoneNumber(), message.getPatientName(), message.getMessageText()));
+            }
+            Map<String, Object> requestBody = new HashMap<>();
+            requestBody.put("messages", messageList);
+            
+            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, createAuthHeaders());
+            ResponseEntity<String> response = restTemplate.exchange(
+                apiDomain + "/messages/v4/send-many/detail",
+                HttpMethod.POST,
+                entity,
+                String.class
+            );
+            responded = true;
+            
+            // 요청 단위 결과는 failedMessageList에만 담겨 온다
+            JsonNode failedList = objectMapper.readTree(response.getBody()).path("failedMessageList");
+            for (JsonNode failed : failedList) {
+                String reason = failed.path("statusMessage").asText(failed.path("statusCode").asText("SMS 발송 실패"));
+                for (Long id : matchFailed(failed, messages)) {
+                    failures.put(id, reason);
+                }
+            }
+            log.info("SMS 일괄 발송: {}건 중 {}건 성공 ({}ms)", messages.size(), messages.size() - failures.size(),
+                System.currentTimeMillis() - startedAt);
+        } catch (HttpClientErrorException e) {
+            // 요청 내용 문제(4xx)는 제공자가 정상 응답한 것이므로 차단 판단에 넣지 않는다
+            responded = true;
+            log.error("SMS 일괄 발송 거부: {} {}", e.getStatusCode(), e.getResponseBodyAsString());
+            failAll(messages, failures, "SMS 발송 거부: " + e.getStatusCode());
+        } catch (Exception e) {
+            log.error("SMS 일괄 발송 중 오류 발생: {}", e.getMessage());
+            failAll(messages, failures, e.getMessage() != null ? e.getMessage() : "SMS 발송 실패");
+        } finally {
+            circuitBreaker.record(responded, System.currentTimeMillis() - startedAt);
         }
+        return new BatchResult(true, failures);
+    }
+    
+    /**
+     * 일괄 발송 결과
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class BatchResult {
+        private final boolean attempted; // false면 제공자를 호출하지 않음 (차단 중)
+        private final Map<Long, String> failures; // 실패한 요청 ID와 사유
+    }
+    
+    /**
+     * 지금 SMS 제공자로 발송을 시도할 수 있는지 (차단 중이면 false)
+     */
+    public boolean isProviderAvailable() {
+        return isSimulationMode() || circuitBreaker.isCallPermitted();
+    }
+    
+    /**
+     * 차단기가 정상 상태가 아닌지 (복구 확인 중에는 한 건씩만 발송)
+     */
+    public boolean isProviderDegraded() {
+        return !isSimulationMode() && circuitBreaker.getState() != SmsCircuitBreaker.State.CLOSED;
     }
     
     /**
@@ -109,7 +235,7 @@ public class SmsService {
      * @param simulationMode 시뮬레이션 모드 여부
      */
     public void setSimulationMode(boolean simulationMode) {
-        this.simulationMode = simulationMode;
+        runtimeSettings.put(RuntimeSettingsService.SMS_SIMULATION_MODE, String.valueOf(simulationMode));
         log.info("SMS 모드 변경: {}", simulationMode ? "시뮬레이션 모드" : "실제 발송 모드");
     }
     
@@ -118,7 +244,7 @@ public class SmsService {
      * @return 시뮬레이션 모드 여부
      */
     public boolean isSimulationMode() {
-        return simulationMode;
+        return runtimeSettings.getBoolean(RuntimeSettingsService.SMS_SIMULATION_MODE, DEFAULT_SIMULATION_MODE);
     }
     
     /**
@@ -127,7 +253,7 @@ public class SmsService {
      */
     public void setSmsNotifyTiming(int timing) {
         if (timing >= 1 && timing <= 5) {
-            this.smsNotifyTiming = timing;
+            runtimeSettings.put(RuntimeSettingsService.SMS_NOTIFY_TIMING, String.valueOf(timing));
             log.info("SMS 알림 발송 시점 변경: {}번째 순서", timing);
         } else {
             log.warn("잘못된 SMS 알림 발송 시점: {}", timing);
@@ -139,7 +265,97 @@ public class SmsService {
      * @return 발송 시점
      */
     public int getSmsNotifyTiming() {
-        return smsNotifyTiming;
+        int timing = runtimeSettings.getInt(RuntimeSettingsService.SMS_NOTIFY_TIMING, DEFAULT_NOTIFY_TIMING);
+        return timing >= 1 && timing <= 5 ? timing : DEFAULT_NOTIFY_TIMING;
+    }
+    
+    /**
+     * 대기 순번 안내 문구
+     * @param position 알림 시점의 대기 순번 (1이면 다음 순서)
+     */
+    public String waitingText(String patientName, int position) {
+        if (position <= 1) {
+            return String.format("[병원 알림] %s님, 다음 순서입니다. 병원 내에서 대기해주세요.", patientName);
+        }
+        return String.format("[병원 알림] %s님, 앞에 대기인원이 %d명 남았습니다. 병원 내에서 대기해주세요.", patientName, position - 1);
+    }
+    
+    /**
+     * 의사 호출 안내 문구
+     */
+    public String callText(String patientName, Integer roomNumber) {
+        if (roomNumber == null) {
+            return String.format("[병원 알림] %s님, 진료실로 입장해주세요.", patientName);
+        }
+        return String.format("[병원 알림] %s님, %d번 진료실로 입장해주세요.", patientName, roomNumber);
+    }
+    
+    private Map<String, Object> buildMessage(Long outboxId, String phoneNumber, String patientName, String text) {
+        Map<String, Object> message = new HashMap<>();
+        message.put("to", phoneNumber);
+        message.put("from", fromNumber);
+        // 문구 없이 등록된 요청(테스트 발송, 이전 요청)은 기존 안내 문구로 발송
+        message.put("text", text != null ? text : waitingText(patientName, 2));
+        if (outboxId != null) {
+            message.put("customFields", Collections.singletonMap(OUTBOX_ID_FIELD, String.valueOf(outboxId)));
+        }
+        return message;
+    }
+    
+    /**
+     * 실패 항목에 해당하는 요청 ID
+     * 사용자 정의 필드의 요청 ID로 찾고, 없으면 수신 번호로 찾는다.
+     * 같은 번호가 여러 건이면 어느 요청인지 알 수 없으므로 모두 실패로 보고 다시 보낸다 (누락보다 중복이 낫다).
+     */
+    private static List<Long> matchFailed(JsonNode failed, List<SmsOutbox> messages) {
+        String outboxId = failed.path("customFields").path(OUTBOX_ID_FIELD).asText("");
+        List<Long> matched = new ArrayList<>(1);
+        for (SmsOutbox message : messages) {
+            if (!outboxId.isEmpty() && outboxId.equals(String.valueOf(message.getId()))) {
+                return Collections.singletonList(message.getId());
+            }
+        }
+        String to = digitsOf(failed.path("to").asText());
+        for (SmsOutbox message : messages) {
+            if (to.equals(digitsOf(message.getPhoneNumber()))) {
+                matched.add(message.getId());
+            }
+        }
+        if (matched.size() > 1) {
+            log.warn("SMS 일괄 발송 실패 항목을 요청과 맞출 수 없어 같은 번호 {}건을 모두 재시도", matched.size());
+        }
+        return matched;
+    }
+    
+    /**
+     * 요청 인증 헤더 (현재 시각과 salt로 HMAC 서명)
+     */
+    private HttpHeaders createAuthHeaders() {
+        // 현재 시간을 ISO 8601 형식으로 생성
+        String timestamp = ZonedDateTime.now(ZoneId.of("Asia/Seoul"))
+                .format(DateTimeFormatter.ISO_OFFSET_DATE_TIME);
+        
+        String salt = String.valueOf(System.nanoTime());
+        
+        // 서명 생성을 위한 문자열
+        String data = timestamp + salt;
+        String signature = generateHmacSha256(data, apiSecret);
+        
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("Authorization", String.format("HMAC-SHA256 =%s, date=%s, salt=%s, signature=%s", 
+                apiKey, timestamp, salt, signature));
+        return headers;
+    }
+    
+    private static void failAll(List<SmsOutbox> messages, Map<Long, String> failures, String reason) {
+        for (SmsOutbox message : messages) {
+            failures.put(message.getId(), reason);
+        }
+    }
+    
+    private static String digitsOf(String phoneNumber) {
+        return phoneNumber == null ? "" : phoneNumber.replaceAll("[^0-9]", "");
     }
     
     /**
@@ -0,0 +1,753 @@
+package org.example.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.dto.QueueDeltaEvent;
+import org.example.model.Reception;
+import org.example.model.Reception.ReceptionStatus;
+import org.example.repository.ReceptionRepository;
+import org.example.repository.ReceptionRepository.QueueEntryView;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 메모리 상주 대기열 인덱스
+ * PENDING(접수 시각 순)과 CONFIRMED(우선순위 기준 시각 순) 대기열을 순서 통계 트리로 유지하여
+ * DB 조회 없이 O(log n)으로 대기 순번을 계산한다. 호출된(CALLED) 접수는 순번 없이 함께 보관한다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class WaitingQueueIndex {
+
+    private static final List<ReceptionStatus> ACTIVE_STATUSES = Arrays.asList(
+        ReceptionStatus.PENDING, ReceptionStatus.CONFIRMED, ReceptionStatus.CALLED);
+
+    private final ReceptionRepository receptionRepository;
+    private final RealtimeNotificationService realtimeNotificationService;
+    private final AfterCommitExecutor afterCommitExecutor;
+    private final QueueEventLog queueEventLog;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final OrderStatisticTree pendingTree = new OrderStatisticTree();
+    private final OrderStatisticTree confirmedTree = new OrderStatisticTree();
+    private final Map<Long, QueueKey> keys = new HashMap<>();
+
+    private volatile boolean loaded = false;
+    // 변경 횟수 (스냅샷 저장 여부 판단용)
+    private volatile long modCount = 0;
+    // 대기열 이벤트 순번 (발행 락 안에서만 증가, 커밋된 순서대로 붙는다)
+    // 재시작 후에도 이전 실행의 순번보다 커지도록 시작 시각(ms) × 1000에서 시작한다
+    private volatile long seq = System.currentTimeMillis() * 1000;
+    // 순번 부여, 기록, 전송을 한 번에 처리하기 위한 락 (인덱스 쓰기 락을 잡은 채로 잡지 않는다)
+    private final Object publishLock = new Object();
+
+    /**
+     * 애플리케이션 시작 시 DB의 당일 대기열로 인덱스 재구성
+     * 스냅샷으로 먼저 복원된 경우 한 번의 조회로 DB와 대조하여 달라진 항목만 반영한다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<QueueEntryView> entries = receptionRepository.findActiveQueueEntries(LocalDate.now(), ACTIVE_STATUSES);
+
+        Map<Long, QueueKey> latest = new HashMap<>();
+        for (QueueEntryView entry : entries) {
+            latest.put(entry.getId(), QueueKey.of(entry));
+        }
+
+        int changed = 0;
+        int confirmedCount;
+        int pendingCount;
+        lock.writeLock().lock();
+        try {
+            for (Long receptionId : new ArrayList<>(keys.keySet())) {
+                if (!latest.containsKey(receptionId)) {
+                    put(receptionId, null);
+                    changed++;
+                }
+            }
+            for (Map.Entry<Long, QueueKey> entry : latest.entrySet()) {
+                if (!entry.getValue().equals(keys.get(entry.getKey()))) {
+                    put(entry.getKey(), entry.getValue());
+                    changed++;
+                }
+            }
+            loaded = true;
+            confirmedCount = confirmedTree.size();
+            pendingCount = pendingTree.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        // 개별 변경 대신 전체 다시 조회하라는 이벤트 한 번만 전송
+        synchronized (publishLock) {
+            queueEventLog.reset(++seq);
+            realtimeNotificationService.notifyWaitingQueueUpdate(seq, confirmedCount, pendingCount);
+        }
+        log.info("대기열 인덱스 재구성 완료: PENDING {}명, CONFIRMED {}명, 변경 {}건",
+            pendingCount, confirmedCount, changed);
+    }
+
+    /**
+     * 커밋된 정렬 키로 CONFIRMED 항목만 다시 배치 (레인 설정 변경 후)
+     * 전체 재구성과 달리 쓰기 락 안에서 해당 항목만 바꾸므로, 아직 커밋되지 않은 다른 접수의 변경은 그대로 남는다.
+     * 순번이 바뀐 항목마다 RANK_CHANGED 이벤트를 전송한다.
+     */
+    public void rekey(Collection<QueueEntryView> entries) {
+        if (!loaded || entries.isEmpty()) {
+            return;
+        }
+        List<QueueDeltaEvent> events = new ArrayList<>();
+        lock.writeLock().lock();
+        try {
+            for (QueueEntryView entry : entries) {
+                QueueKey current = keys.get(entry.getId());
+                if (current == null || current.status != ReceptionStatus.CONFIRMED
+                        || entry.getStatus() != ReceptionStatus.CONFIRMED) {
+                    // 그사이 호출, 삭제된 접수는 해당 변경이 이미 반영되어 있다
+                    continue;
+                }
+                QueueKey newKey = QueueKey.of(entry);
+                if (!newKey.equals(current)) {
+                    QueueDeltaEvent event = change(entry.getId(), newKey);
+                    if (event != null) {
+                        events.add(event);
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        for (QueueDeltaEvent event : events) {
+            publish(event);
+        }
+        log.info("대기열 인덱스 키 갱신: 대상 {}건, 순번 변경 {}건", entries.size(), events.size());
+    }
+
+    /**
+     * 스냅샷으로 인덱스 복원 (DB 조회 전에 대기열 조회를 바로 처리하기 위함)
+     */
+    public void restore(List<QueueKey> snapshot) {
+        lock.writeLock().lock();
+        try {
+            if (loaded) {
+                return;
+            }
+            for (QueueKey key : snapshot) {
+                put(key.id, key);
+            }
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("대기열 스냅샷 복원: {}건", snapshot.size());
+    }
+
+    /**
+     * 현재 대기열 내보내기 (CONFIRMED 순번 순, PENDING 순번 순, CALLED 순)
+     */
+    public List<QueueKey> export() {
+        lock.readLock().lock();
+        try {
+            List<QueueKey> result = new ArrayList<>(keys.size());
+            confirmedTree.collectInOrder(result);
+            pendingTree.collectInOrder(result);
+            for (QueueKey key : keys.values()) {
+                if (key.status == ReceptionStatus.CALLED) {
+                    result.add(key);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 대기열 앞쪽부터 limit건 (CONFIRMED 순번 순 다음 PENDING 순번 순)
+     */
+    public List<QueueKey> head(int limit) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            List<QueueKey> result = new ArrayList<>(Math.min(limit, keys.size()));
+            confirmedTree.collectInOrder(result, limit);
+            pendingTree.collectInOrder(result, limit);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 호출된 접수 목록 (진료실 입장 대기)
+     */
+    public List<QueueKey> called() {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            List<QueueKey> result = new ArrayList<>();
+            for (QueueKey key : keys.values()) {
+                if (key.status == ReceptionStatus.CALLED) {
+                    result.add(key);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public long getModCount() {
+        return modCount;
+    }
+
+    /**
+     * 마지막으로 발행한 대기열 이벤트 순번
+     */
+    public long getSeq() {
+        return seq;
+    }
+
+    /**
+     * 신규 접수 등록 (PENDING 대기열에 추가)
+     */
+    public void onRegistered(Reception reception) {
+        apply(reception.getId(), QueueKey.pending(reception));
+    }
+
+    /**
+     * 접수 확인 (PENDING -> CONFIRMED 대기열로 이동)
+     */
+    public void onConfirmed(Reception reception) {
+        apply(reception.getId(), QueueKey.confirmed(reception));
+    }
+
+    /**
+     * 의사 호출 (대기열에서 빠지고 진료실 정보와 함께 보관)
+     */
+    public void onCalled(Reception reception) {
+        apply(reception.getId(), QueueKey.called(reception));
+    }
+
+    /**
+     * 진료 완료, 삭제 시 제거
+     */
+    public void onRemoved(Long receptionId) {
+        apply(receptionId, null);
+    }
+
+    /**
+     * 대기 순번 조회 (1부터 시작, 대기열에 없으면 0)
+     * PENDING 상태는 CONFIRMED 인원 뒤에 접수 순서대로 배치된다.
+     * 예전 조회는 CONFIRMED만 순번을 주고 PENDING은 0이었으나, 지금은 PENDING도 CONFIRMED 인원 수 + 접수 순번을 받는다.
+     */
+    public int getWaitingPosition(Long receptionId) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            return positionOf(keys.get(receptionId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * CONFIRMED 대기열에서 주어진 순번(1부터)에 있는 접수, 인원이 그보다 적으면 null
+     */
+    public QueueKey confirmedAt(int position) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            return position < 1 ? null : confirmedTree.select(position);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * CONFIRMED 대기 인원 수
+     */
+    public int getConfirmedCount() {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            return confirmedTree.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * PENDING 대기 인원 수
+     */
+    public int getPendingCount() {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            return pendingTree.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    rebuild();
+                }
+            }
+        }
+    }
+
+    /**
+     * 인덱스 변경 적용
+     * 트랜잭션 안에서 호출되면 변경 이벤트는 커밋 후 전송하고, 롤백 시 이전 상태로 되돌린다.
+     */
+    private void apply(Long receptionId, QueueKey newKey) {
+        if (!loaded) {
+            // 아직 재구성 전이면 재구성 시 DB 상태가 그대로 반영된다
+            return;
+        }
+        QueueKey previous;
+        QueueDeltaEvent event;
+        lock.writeLock().lock();
+        try {
+            previous = keys.get(receptionId);
+            event = change(receptionId, newKey);
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        if (event != null) {
+            // 이벤트 버퍼에 넣기만 하므로 커밋 직후 현재 스레드에서 처리
+            afterCommitExecutor.afterCommit(() -> publish(event));
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        // 롤백된 변경의 이벤트는 순번을 받기 전이므로 되돌린 변경만 전송한다
+                        QueueDeltaEvent undo;
+                        lock.writeLock().lock();
+                        try {
+                            undo = change(receptionId, previous);
+                        } finally {
+                            lock.writeLock().unlock();
+                        }
+                        if (undo != null) {
+                            publish(undo);
+                        }
+                        log.info("대기열 인덱스 롤백: 접수 ID {}", receptionId);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * 순번을 붙여 기록한 뒤 전송 (재연결한 클라이언트가 놓친 이벤트를 다시 받을 수 있도록)
+     * 순번은 커밋 후 발행 시점에 붙이므로, 먼저 변경했지만 늦게 커밋한 트랜잭션의 이벤트도
+     * 앞서 전송된 순번 뒤에 이어진다.
+     */
+    private void publish(QueueDeltaEvent event) {
+        synchronized (publishLock) {
+            event.setSeq(++seq);
+            queueEventLog.append(event);
+            realtimeNotificationService.notifyQueueDelta(event);
+        }
+    }
+
+    /**
+     * 변경을 반영하고 변경 이벤트 생성 (보이는 변화가 없으면 null, 순번은 발행할 때 붙는다)
+     * 쓰기 락을 잡은 상태에서만 호출
+     */
+    private QueueDeltaEvent change(Long receptionId, QueueKey newKey) {
+        int fromPosition = positionOf(keys.get(receptionId));
+        QueueKey previous = put(receptionId, newKey);
+        int toPosition = positionOf(newKey);
+
+        if (previous == null && newKey == null) {
+            return null;
+        }
+        QueueDeltaEvent.Op op;
+        if (previous == null) {
+            op = QueueDeltaEvent.Op.ADDED;
+        } else if (newKey == null) {
+            op = QueueDeltaEvent.Op.REMOVED;
+        } else if (previous.status != newKey.status) {
+            op = QueueDeltaEvent.Op.MOVED;
+        } else if (fromPosition != toPosition || !Objects.equals(previous.roomNumber, newKey.roomNumber)) {
+            op = QueueDeltaEvent.Op.RANK_CHANGED;
+        } else {
+            return null;
+        }
+
+        return QueueDeltaEvent.builder()
+            .op(op)
+            .receptionId(receptionId)
+            .fromStatus(previous != null ? previous.status : null)
+            .toStatus(newKey != null ? newKey.status : null)
+            .fromPosition(fromPosition)
+            .toPosition(toPosition)
+            .roomNumber(newKey != null ? newKey.roomNumber : previous.roomNumber)
+            .confirmedCount(confirmedTree.size())
+            .pendingCount(pendingTree.size())
+            .timestamp(System.currentTimeMillis())
+            .build();
+    }
+
+    /**
+     * 통합 대기 순번 (CONFIRMED 순번 뒤에 PENDING 순번, 대기열 밖이면 0)
+     * 락을 잡은 상태에서만 호출
+     */
+    private int positionOf(QueueKey key) {
+        if (key == null || key.status == ReceptionStatus.CALLED) {
+            return 0;
+        }
+        if (key.status == ReceptionStatus.CONFIRMED) {
+            return confirmedTree.rank(key);
+        }
+        return confirmedTree.size() + pendingTree.rank(key);
+    }
+
+    /**
+     * 쓰기 락을 잡은 상태에서만 호출
+     */
+    private QueueKey put(Long receptionId, QueueKey newKey) {
+        QueueKey previous = newKey != null ? keys.put(receptionId, newKey) : keys.remove(receptionId);
+        if (previous != null) {
+            OrderStatisticTree tree = treeOf(previous);
+            if (tree != null) {
+                tree.remove(previous);
+            }
+        }
+        if (newKey != null) {
+            OrderStatisticTree tree = treeOf(newKey);
+            if (tree != null) {
+                tree.insert(newKey);
+            }
+        }
+        modCount++;
+        return previous;
+    }
+
+    private OrderStatisticTree treeOf(QueueKey key) {
+        switch (key.status) {
+            case PENDING:
+                return pendingTree;
+            case CONFIRMED:
+                return confirmedTree;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * 대기열 정렬 키 (기준 시각, 접수 ID)
+     * 기준 시각은 PENDING은 접수 시각, CONFIRMED는 우선순위 기준 시각, CALLED는 호출 시각이다.
+     */
+    public static final class QueueKey implements Comparable<QueueKey> {
+        final LocalDateTime time;
+        final long id;
+        final ReceptionStatus status;
+        final Integer roomNumber;
+
+        QueueKey(LocalDateTime time, long id, ReceptionStatus status, Integer roomNumber) {
+            this.time = time != null ? time : LocalDateTime.MIN;
+            this.id = id;
+            this.status = status;
+            this.roomNumber = roomNumber;
+        }
+
+        static QueueKey pending(Reception reception) {
+            return new QueueKey(reception.getCreatedAt(), reception.getId(), ReceptionStatus.PENDING, null);
+        }
+
+        static QueueKey confirmed(Reception reception) {
+            LocalDateTime time = reception.getPriorityAt() != null ? reception.getPriorityAt() : reception.getConfirmedAt();
+            return new QueueKey(time, reception.getId(), ReceptionStatus.CONFIRMED, null);
+        }
+
+        static QueueKey called(Reception reception) {
+            return new QueueKey(reception.getCalledAt(), reception.getId(), ReceptionStatus.CALLED, reception.getRoomNumber());
+        }
+
+        static QueueKey of(QueueEntryView entry) {
+            switch (entry.getStatus()) {
+                case PENDING:
+                    return new QueueKey(entry.getCreatedAt(), entry.getId(), ReceptionStatus.PENDING, null);
+                case CONFIRMED:
+                    LocalDateTime time = entry.getPriorityAt() != null ? entry.getPriorityAt() : entry.getConfirmedAt();
+                    return new QueueKey(time, entry.getId(), ReceptionStatus.CONFIRMED, null);
+                default:
+                    return new QueueKey(entry.getCalledAt(), entry.getId(), ReceptionStatus.CALLED, entry.getRoomNumber());
+            }
+        }
+
+        public static QueueKey restore(long id, ReceptionStatus status, LocalDateTime time, Integer roomNumber) {
+            return new QueueKey(time, id, status, roomNumber);
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public ReceptionStatus getStatus() {
+            return status;
+        }
+
+        public LocalDateTime getTime() {
+            return time;
+        }
+
+        public Integer getRoomNumber() {
+            return roomNumber;
+        }
+
+        @Override
+        public int compareTo(QueueKey other) {
+            int result = time.compareTo(other.time);
+            return result != 0 ? result : Long.compare(id, other.id);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof QueueKey)) {
+                return false;
+            }
+            QueueKey other = (QueueKey) o;
+            return id == other.id && status == other.status && time.equals(other.time)
+                && Objects.equals(roomNumber, other.roomNumber);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(id, status, time, roomNumber);
+        }
+    }
+
+    /**
+     * 서브트리 크기를 유지하는 AVL 트리 (순위 조회 O(log n))
+     */
+    static final class OrderStatisticTree {
+
+        private Node root;
+
+        private static final class Node {
+            final QueueKey key;
+            Node left;
+            Node right;
+            int height = 1;
+            int size = 1;
+
+            Node(QueueKey key) {
+                this.key = key;
+            }
+        }
+
+        int size() {
+            return size(root);
+        }
+
+        void clear() {
+            root = null;
+        }
+
+        void insert(QueueKey key) {
+            root = insert(root, key);
+        }
+
+        void remove(QueueKey key) {
+            root = remove(root, key);
+        }
+
+        /**
+         * 순위 순서대로 키 수집
+         */
+        void collectInOrder(List<QueueKey> target) {
+            collectInOrder(root, target, Integer.MAX_VALUE);
+        }
+
+        /**
+         * 대상 목록이 limit건이 될 때까지만 순위 순서대로 수집
+         */
+        void collectInOrder(List<QueueKey> target, int limit) {
+            collectInOrder(root, target, limit);
+        }
+
+        private static void collectInOrder(Node node, List<QueueKey> target, int limit) {
+            if (node == null || target.size() >= limit) {
+                return;
+            }
+            collectInOrder(node.left, target, limit);
+            if (target.size() >= limit) {
+                return;
+            }
+            target.add(node.key);
+            collectInOrder(node.right, target, limit);
+        }
+
+        /**
+         * 1부터 시작하는 순위, 없으면 0
+         */
+        int rank(QueueKey key) {
+            int rank = 0;
+            Node node = root;
+            while (node != null) {
+                int cmp = key.compareTo(node.key);
+                if (cmp < 0) {
+                    node = node.left;
+                } else if (cmp > 0) {
+                    rank += size(node.left) + 1;
+                    node = node.right;
+                } else {
+                    return rank + size(node.left) + 1;
+                }
+            }
+            return 0;
+        }
+
+        /**
+         * 1부터 시작하는 순위의 키, 범위를 벗어나면 null
+         */
+        QueueKey select(int rank) {
+            Node node = root;
+            while (node != null) {
+                int leftSize = size(node.left);
+                if (rank <= leftSize) {
+                    node = node.left;
+                } else if (rank == leftSize + 1) {
+                    return node.key;
+                } else {
+                    rank -= leftSize + 1;
+                    node = node.right;
+                }
+            }
+            return null;
+        }
+
+        private static int size(Node node) {
+            return node == null ? 0 : node.size;
+        }
+
+        private static int height(Node node) {
+            return node == null ? 0 : node.height;
+        }
+
+        private static void update(Node node) {
+            node.height = Math.max(height(node.left), height(node.right)) + 1;
+            node.size = size(node.left) + size(node.right) + 1;
+        }
+
+        private static Node rotateRight(Node node) {
+            Node left = node.left;
+            node.left = left.right;
+            left.right = node;
+            update(node);
+            update(left);
+            return left;
+        }
+
+        private static Node rotateLeft(Node node) {
+            Node right = node.right;
+            node.right = right.left;
+            right.left = node;
+            update(node);
+            update(right);
+            return right;
+        }
+
+        private static Node balance(Node node) {
+            update(node);
+            int factor = height(node.left) - height(node.right);
+            if (factor > 1) {
+                if (height(node.left.left) < height(node.left.right)) {
+                    node.left = rotateLeft(node.left);
+                }
+                return rotateRight(node);
+            }
+            if (factor < -1) {
+                if (height(node.right.right) < height(node.right.left)) {
+                    node.right = rotateRight(node.right);
+                }
+                return rotateLeft(node);
+            }
+            return node;
+        }
+
+        private static Node insert(Node node, QueueKey key) {
+            if (node == null) {
+                return new Node(key);
+            }
+            int cmp = key.compareTo(node.key);
+            if (cmp < 0) {
+                node.left = insert(node.left, key);
+            } else if (cmp > 0) {
+                node.right = insert(node.right, key);
+            } else {
+                return node;
+            }
+            return balance(node);
+        }
+
+        private static Node remove(Node node, QueueKey key) {
+            if (node == null) {
+                return null;
+            }
+            int cmp = key.compareTo(node.key);
+            if (cmp < 0) {
+                node.left = remove(node.left, key);
+            } else if (cmp > 0) {
+                node.right = remove(node.right, key);
+            } else {
+                if (node.left == null) {
+                    return node.right;
+                }
+                if (node.right == null) {
+                    return node.left;
+                }
+                Node successor = node.right;
+                while (successor.left != null) {
+                    successor = successor.left;
+                }
+                Node replacement = new Node(successor.key);
+                replacement.right = removeMin(node.right);
+                replacement.left = node.left;
+                return balance(replacement);
+            }
+            return balance(node);
+        }
+
+        private static Node removeMin(Node node) {
+            if (node.left == null) {
+                return node.right;
+            }
+            node.left = removeMin(node.left);
+            return balance(node);
+        }
+    }
+}
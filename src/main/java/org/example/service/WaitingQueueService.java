@@ -2,12 +2,22 @@ package org.example.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.example.model.Reception;
+import org.example.config.QueueConfig;
+import org.example.model.Patient;
+import org.example.model.Reception.PriorityLane;
 import org.example.repository.ReceptionRepository;
+import org.example.repository.ReceptionRepository.QueueEntryView;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -15,57 +25,19 @@ import java.util.List;
 public class WaitingQueueService {
     
     private final ReceptionRepository receptionRepository;
-    private final SmsService smsService;
+    private final WaitingQueueIndex waitingQueueIndex;
+    private final QueueConfig queueConfig;
+    private final AfterCommitExecutor afterCommitExecutor;
+    private final SmsNotificationRuleService smsNotificationRuleService;
     
     /**
-     * 대기열 변경 시 SMS 알림 체크 및 발송
-     * 설정된 발송 시점에 따라 SMS 발송
+     * 알림 순번에 서 있는 접수를 다시 확인해 SMS 발송 요청 등록
+     * 대기열 변경에 따른 알림은 SmsNotificationRuleService가 변경 이벤트로 처리하므로,
+     * 여기서는 SMS 알림 설정이 바뀐 경우처럼 대기열 변화 없이 다시 확인해야 할 때만 호출한다.
      */
-    @Transactional
     public void checkAndSendSmsNotifications() {
         try {
-            // CONFIRMED 상태인 환자들을 확인 시간 순으로 조회
-            List<Reception> waitingReceptions = receptionRepository.findByStatusOrderByConfirmedAtAsc(
-                Reception.ReceptionStatus.CONFIRMED
-            );
-            
-            log.info("대기 중인 환자 수: {}", waitingReceptions.size());
-            
-            // 설정된 발송 시점 가져오기 (기본값: 2번째 순서)
-            int notifyTiming = smsService.getSmsNotifyTiming();
-            
-            // 대기 인원이 설정된 시점 이상이어야 SMS 발송 가능
-            if (waitingReceptions.size() >= notifyTiming) {
-                // 설정된 순서의 대기자 (인덱스는 0부터 시작하므로 -1)
-                Reception targetWaitingReception = waitingReceptions.get(notifyTiming - 1);
-                
-                // SMS 알림이 활성화되어 있고 아직 발송되지 않은 경우
-                if (Boolean.TRUE.equals(targetWaitingReception.getSmsNotificationEnabled()) && 
-                    !Boolean.TRUE.equals(targetWaitingReception.getSmsSent())) {
-                    
-                    String phoneNumber = targetWaitingReception.getPatient().getPhoneNumber();
-                    String patientName = targetWaitingReception.getPatient().getName();
-                    
-                    // 전화번호 유효성 검증
-                    if (smsService.isValidPhoneNumber(phoneNumber)) {
-                        boolean smsResult = smsService.sendWaitingNotification(phoneNumber, patientName);
-                        
-                        if (smsResult) {
-                            // SMS 발송 성공 시 플래그 업데이트
-                            targetWaitingReception.setSmsSent(true);
-                            receptionRepository.save(targetWaitingReception);
-                            log.info("SMS 발송 완료: {} ({})", patientName, phoneNumber);
-                        } else {
-                            log.error("SMS 발송 실패: {} ({})", patientName, phoneNumber);
-                        }
-                    } else {
-                        log.warn("유효하지 않은 전화번호: {} ({})", patientName, phoneNumber);
-                    }
-                }
-            } else {
-                log.debug("대기 인원이 {}명 미만이므로 SMS 발송하지 않음", notifyTiming);
-            }
-            
+            smsNotificationRuleService.evaluate(true);
         } catch (Exception e) {
             log.error("SMS 알림 체크 중 오류 발생: {}", e.getMessage(), e);
         }
@@ -78,10 +50,7 @@ public class WaitingQueueService {
     @Transactional
     public void resetSmsStatusForReception(Long receptionId) {
         try {
-            Reception reception = receptionRepository.findById(receptionId).orElse(null);
-            if (reception != null) {
-                reception.setSmsSent(false);
-                receptionRepository.save(reception);
+            if (receptionRepository.resetSmsSent(receptionId) > 0) {
                 log.info("SMS 발송 상태 초기화: 접수 ID {}", receptionId);
             }
         } catch (Exception e) {
@@ -90,18 +59,82 @@ public class WaitingQueueService {
     }
     
     /**
-     * 특정 환자의 대기 순서 조회
+     * 접수 시 우선순위 레인 결정
+     * 응급 레인은 간호사가 직접 지정하며, 나머지는 환자 정보로 자동 분류한다.
+     */
+    public PriorityLane determineLane(Patient patient, boolean isGuardian, boolean isReturningPatient) {
+        if (patient.getBirthDate() != null
+                && Period.between(patient.getBirthDate(), LocalDate.now()).getYears() >= queueConfig.getElderlyAge()) {
+            return PriorityLane.ELDERLY;
+        }
+        if (isGuardian) {
+            return PriorityLane.GUARDIAN;
+        }
+        if (isReturningPatient) {
+            return PriorityLane.FOLLOW_UP;
+        }
+        return PriorityLane.NORMAL;
+    }
+    
+    /**
+     * 대기 순서 기준 시각 계산 (확인 시각에서 레인 가중치만큼 앞당김)
+     * 모든 레인이 같은 속도로 가산점을 얻으므로 순서는 시간이 지나도 바뀌지 않는다.
+     */
+    public LocalDateTime computePriorityAt(PriorityLane lane, LocalDateTime confirmedAt) {
+        if (confirmedAt == null) {
+            return null;
+        }
+        PriorityLane effectiveLane = lane != null ? lane : PriorityLane.NORMAL;
+        return confirmedAt.minusSeconds(queueConfig.getLaneOffsetSeconds(effectiveLane));
+    }
+    
+    /**
+     * 레인 설정 조회
      */
-    public int getWaitingPosition(Long receptionId) {
-        List<Reception> waitingReceptions = receptionRepository.findByStatusOrderByConfirmedAtAsc(
-            Reception.ReceptionStatus.CONFIRMED
-        );
+    public double getAgingRate() {
+        return queueConfig.getAgingRate();
+    }
+    
+    public Map<PriorityLane, Integer> getLaneWeights() {
+        Map<PriorityLane, Integer> weights = new EnumMap<>(PriorityLane.class);
+        for (PriorityLane lane : PriorityLane.values()) {
+            weights.put(lane, queueConfig.getLaneWeights().getOrDefault(lane, 0));
+        }
+        return weights;
+    }
+    
+    /**
+     * 레인 설정 변경 (재시작 없이 적용)
+     * 대기 중인 환자의 순서 기준 시각을 새 설정으로 레인별 일괄 재계산하고,
+     * 커밋된 뒤에만 설정을 적용하고 바뀐 접수의 인덱스 키만 갱신한다 (롤백되면 기존 설정 유지).
+     */
+    @Transactional
+    public void updateLaneSettings(Double agingRate, Map<PriorityLane, Integer> laneWeights) {
+        if (agingRate != null && agingRate <= 0) {
+            throw new IllegalArgumentException("대기 가산점은 0보다 커야 합니다.");
+        }
+        double newAgingRate = agingRate != null ? agingRate : queueConfig.getAgingRate();
+        Map<PriorityLane, Integer> newWeights = getLaneWeights();
+        if (laneWeights != null) {
+            newWeights.putAll(laneWeights);
+        }
         
-        for (int i = 0; i < waitingReceptions.size(); i++) {
-            if (waitingReceptions.get(i).getId().equals(receptionId)) {
-                return i + 1; // 1부터 시작하는 순서
-            }
+        List<Long> changedIds = new ArrayList<>();
+        for (PriorityLane lane : PriorityLane.values()) {
+            changedIds.addAll(receptionRepository.updatePriorityAtForLane(LocalDate.now(), lane.name(),
+                QueueConfig.laneOffsetSeconds(lane, newAgingRate, newWeights)));
         }
-        return 0; // 대기열에 없음
+        // 이 트랜잭션이 바꾼 값 그대로 키를 만들어 두고 커밋 후 인덱스에 반영
+        List<QueueEntryView> changedEntries = changedIds.isEmpty()
+            ? Collections.<QueueEntryView>emptyList()
+            : receptionRepository.findQueueEntriesByIds(changedIds);
+        
+        afterCommitExecutor.afterCommit(() -> {
+            queueConfig.setAgingRate(newAgingRate);
+            queueConfig.setLaneWeights(newWeights);
+            log.info("우선순위 레인 설정 변경: 가산점 {}/분, 가중치 {}", newAgingRate, newWeights);
+            // 전체 재구성 대신 바뀐 CONFIRMED 항목만 쓰기 락 안에서 키 변경 (순번 변경 이벤트로 전송)
+            waitingQueueIndex.rekey(changedEntries);
+        });
     }
 } 
\ No newline at end of file
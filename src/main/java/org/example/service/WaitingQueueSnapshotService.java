@@ -0,0 +1,186 @@
+package org.example.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.config.QueueConfig;
+import org.example.model.Reception.ReceptionStatus;
+import org.example.service.WaitingQueueIndex.QueueKey;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * 대기열 스냅샷 서비스
+ * 메모리 대기열 인덱스를 주기적으로 파일에 저장해 두었다가, 재시작 시 DB 조회 전에 먼저 복원한다.
+ * 복원 후에는 애플리케이션 준비 완료 시점에 DB와 한 번 대조하여 어긋난 항목을 바로잡는다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class WaitingQueueSnapshotService {
+
+    private static final int MAGIC = 0x48515331; // "HQS1"
+    private static final int VERSION = 1;
+
+    private final WaitingQueueIndex waitingQueueIndex;
+    private final QueueConfig queueConfig;
+
+    private long savedModCount = -1;
+
+    /**
+     * 시작 시 스냅샷 복원
+     */
+    @PostConstruct
+    public void load() {
+        Path path = getSnapshotPath();
+        if (path == null || !Files.exists(path)) {
+            return;
+        }
+        try {
+            List<QueueKey> snapshot = read(path);
+            if (snapshot != null) {
+                waitingQueueIndex.restore(snapshot);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("대기열 스냅샷 복원 실패, DB에서 재구성합니다: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 변경이 있을 때만 주기적으로 저장
+     */
+    @Scheduled(fixedDelayString = "${queue.snapshot-interval-ms:5000}")
+    public void saveIfChanged() {
+        if (!waitingQueueIndex.isLoaded()) {
+            return;
+        }
+        long modCount = waitingQueueIndex.getModCount();
+        if (modCount == savedModCount) {
+            return;
+        }
+        if (save()) {
+            savedModCount = modCount;
+        }
+    }
+
+    /**
+     * 종료 시 마지막 상태 저장
+     */
+    @PreDestroy
+    public void saveOnShutdown() {
+        if (waitingQueueIndex.isLoaded()) {
+            save();
+        }
+    }
+
+    private boolean save() {
+        Path path = getSnapshotPath();
+        if (path == null) {
+            return false;
+        }
+        List<QueueKey> entries = waitingQueueIndex.export();
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+            write(temp, entries);
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("대기열 스냅샷 저장: {}건", entries.size());
+            return true;
+        } catch (IOException e) {
+            log.warn("대기열 스냅샷 저장 실패: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 형식: MAGIC, VERSION, 저장 시각(epoch ms), 건수, 항목들, CRC32
+     * 항목: ID, 상태, 기준 시각(초, 나노초), 진료실 번호(-1이면 없음)
+     */
+    private void write(Path path, List<QueueKey> entries) throws IOException {
+        CRC32 crc = new CRC32();
+        try (OutputStream file = Files.newOutputStream(path);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new CheckedOutputStream(file, crc)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(System.currentTimeMillis());
+            out.writeInt(entries.size());
+            for (QueueKey key : entries) {
+                out.writeLong(key.getId());
+                out.writeByte(key.getStatus().ordinal());
+                out.writeLong(key.getTime().toEpochSecond(ZoneOffset.UTC));
+                out.writeInt(key.getTime().getNano());
+                out.writeInt(key.getRoomNumber() != null ? key.getRoomNumber() : -1);
+            }
+            out.flush();
+            // 체크섬은 본문 뒤에 덧붙인다 (체크섬 자체는 계산에 포함되지 않도록 원본 스트림에 기록)
+            new DataOutputStream(file).writeLong(crc.getValue());
+        }
+    }
+
+    private List<QueueKey> read(Path path) throws IOException {
+        CRC32 crc = new CRC32();
+        try (InputStream file = new BufferedInputStream(Files.newInputStream(path))) {
+            DataInputStream in = new DataInputStream(new CheckedInputStream(file, crc));
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                log.warn("대기열 스냅샷 형식이 맞지 않아 무시합니다.");
+                return null;
+            }
+            Instant savedAt = Instant.ofEpochMilli(in.readLong());
+            if (Duration.between(savedAt, Instant.now()).toMinutes() > queueConfig.getSnapshotMaxAgeMinutes()) {
+                log.info("대기열 스냅샷이 오래되어 무시합니다: {}", savedAt);
+                return null;
+            }
+
+            ReceptionStatus[] statuses = ReceptionStatus.values();
+            int count = in.readInt();
+            List<QueueKey> entries = new ArrayList<>(Math.max(count, 0));
+            for (int i = 0; i < count; i++) {
+                long id = in.readLong();
+                ReceptionStatus status = statuses[in.readUnsignedByte()];
+                LocalDateTime time = LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+                int roomNumber = in.readInt();
+                entries.add(QueueKey.restore(id, status, time, roomNumber >= 0 ? roomNumber : null));
+            }
+
+            long expected = crc.getValue();
+            if (new DataInputStream(file).readLong() != expected) {
+                log.warn("대기열 스냅샷 체크섬 불일치로 무시합니다.");
+                return null;
+            }
+            return entries;
+        }
+    }
+
+    private Path getSnapshotPath() {
+        String snapshotPath = queueConfig.getSnapshotPath();
+        if (snapshotPath == null || snapshotPath.trim().isEmpty()) {
+            return null;
+        }
+        return Paths.get(snapshotPath);
+    }
+}
@@ -0,0 +1,71 @@
+package org.example.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationContext;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * STOMP 채널 상태 지표
+ * 채널별 스레드 풀의 대기 큐 길이와 느린 클라이언트로 인해 끊긴 세션 수를 집계한다.
+ * 채널 실행기는 WebSocket 설정이 끝난 뒤에 만들어지므로 조회 시점에 찾아 쓴다.
+ */
+@Component
+@RequiredArgsConstructor
+public class WebSocketChannelMetrics {
+
+    private static final String[] CHANNEL_EXECUTORS = {
+            "clientInboundChannelExecutor",
+            "clientOutboundChannelExecutor",
+            "brokerChannelExecutor"
+    };
+
+    private final ApplicationContext applicationContext;
+
+    private final AtomicLong slowSessionDisconnects = new AtomicLong();
+    private final AtomicLong closedSessions = new AtomicLong();
+
+    /**
+     * 세션 종료 기록
+     * 전송 시간/버퍼 제한을 넘겨 끊긴 세션은 SESSION_NOT_RELIABLE 상태로 닫힌다.
+     */
+    public void onSessionClosed(CloseStatus status) {
+        closedSessions.incrementAndGet();
+        if (CloseStatus.SESSION_NOT_RELIABLE.equalsCode(status)) {
+            slowSessionDisconnects.incrementAndGet();
+        }
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        for (String name : CHANNEL_EXECUTORS) {
+            if (!applicationContext.containsBean(name)) {
+                continue;
+            }
+            Object bean = applicationContext.getBean(name);
+            if (bean instanceof ThreadPoolTaskExecutor) {
+                metrics.put(name, describe((ThreadPoolTaskExecutor) bean));
+            }
+        }
+        metrics.put("closedSessions", closedSessions.get());
+        metrics.put("slowSessionDisconnects", slowSessionDisconnects.get());
+        return metrics;
+    }
+
+    private Map<String, Object> describe(ThreadPoolTaskExecutor executor) {
+        Map<String, Object> info = new LinkedHashMap<>();
+        ThreadPoolExecutor pool = executor.getThreadPoolExecutor();
+        info.put("poolSize", pool.getPoolSize());
+        info.put("activeThreads", pool.getActiveCount());
+        info.put("queueDepth", pool.getQueue().size());
+        info.put("queueRemaining", pool.getQueue().remainingCapacity());
+        info.put("completedTasks", pool.getCompletedTaskCount());
+        return info;
+    }
+}
@@ -0,0 +1,101 @@
+package org.example;
+
+import org.example.model.Patient;
+import org.example.model.Reception;
+import org.example.model.Reception.ReceptionStatus;
+import org.example.repository.PatientRepository;
+import org.example.repository.ReceptionRepository;
+import org.example.service.WaitingQueueIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 실제 PostgreSQL(Testcontainers)에서 실행하는 통합 테스트 기반 클래스
+ * 조건부 UPDATE, SKIP LOCKED 같은 PostgreSQL 동작을 그대로 확인한다. Docker가 없으면 건너뛴다.
+ * 모든 커넥션에 lock_timeout을 걸어 두어, 행 잠금을 기다리는 경우 테스트가 예외로 실패한다.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.hikari.maximum-pool-size=16",
+    "spring.datasource.hikari.connection-init-sql=SET lock_timeout = '1s'",
+    "spring.jpa.show-sql=false",
+    "queue.rooms=4",
+    "sms.outbox.poll-interval-ms=600000"
+})
+@Testcontainers(disabledWithoutDocker = true)
+public abstract class PostgresIntegrationTest {
+
+    // 테스트 클래스 전체에서 컨테이너 하나를 공유 (Spring 컨텍스트 캐시와 수명을 맞춤)
+    protected static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) throws IOException {
+        POSTGRES.start();
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        String snapshotDir = Files.createTempDirectory("queue-snapshot").toString();
+        registry.add("queue.snapshot-path", () -> snapshotDir + "/queue-snapshot.bin");
+    }
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    protected PatientRepository patientRepository;
+
+    @Autowired
+    protected ReceptionRepository receptionRepository;
+
+    @Autowired
+    protected WaitingQueueIndex waitingQueueIndex;
+
+    @Autowired
+    protected PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void cleanDatabase() {
+        // 커넥션이 auto-commit이 아니므로 트랜잭션 안에서 실행해야 반영된다
+        new TransactionTemplate(transactionManager).execute(status -> {
+            jdbcTemplate.execute("TRUNCATE TABLE patients, receptions, sms_outbox RESTART IDENTITY CASCADE");
+            return null;
+        });
+        waitingQueueIndex.rebuild();
+    }
+
+    /**
+     * 당일 접수 한 건 생성 (minute은 기준 시각에서 몇 분 뒤에 접수, 확인했는지)
+     */
+    protected Reception createReception(String name, ReceptionStatus status, int minute) {
+        Patient patient = new Patient();
+        patient.setName(name);
+        patient.setBirthDate(LocalDate.of(1980, 1, 1));
+        patient.setPhoneNumber("010-1234-" + String.format("%04d", minute));
+        patient.setCreatedAt(LocalDateTime.now());
+        patientRepository.save(patient);
+
+        LocalDateTime base = LocalDate.now().atStartOfDay();
+        Reception reception = new Reception();
+        reception.setPatient(patient);
+        reception.setStatus(status);
+        reception.setServiceDate(LocalDate.now());
+        reception.setCreatedAt(base.plusMinutes(minute));
+        if (status == ReceptionStatus.CONFIRMED) {
+            reception.setConfirmedAt(base.plusMinutes(minute));
+            reception.setPriorityAt(base.plusMinutes(minute));
+        }
+        return receptionRepository.save(reception);
+    }
+}
@@ -0,0 +1,74 @@
+package org.example.config;
+
+import org.example.service.PatientSessionRegistry;
+import org.example.service.ReceptionAccessService;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 환자 STOMP 연결: 접수 ID만으로는 연결되지 않고 발급한 토큰이 맞아야 한다
+ */
+class PatientChannelInterceptorTest {
+
+    private final PatientSessionRegistry patientSessionRegistry = mock(PatientSessionRegistry.class);
+    private final ReceptionAccessService receptionAccessService = mock(ReceptionAccessService.class);
+    private final PatientChannelInterceptor interceptor = new PatientChannelInterceptor(patientSessionRegistry, receptionAccessService);
+
+    @Test
+    void connectWithoutValidTokenIsRejected() {
+        when(receptionAccessService.isValid(5L, "wrong")).thenReturn(false);
+
+        assertThatThrownBy(() -> interceptor.preSend(connect("5", "wrong"), null))
+            .isInstanceOf(MessageDeliveryException.class);
+        assertThatThrownBy(() -> interceptor.preSend(connect("5", null), null))
+            .isInstanceOf(MessageDeliveryException.class);
+        verify(patientSessionRegistry, never()).register(any(), anyLong());
+    }
+
+    @Test
+    void connectWithValidTokenRegistersSession() {
+        when(receptionAccessService.isValid(5L, "secret")).thenReturn(true);
+        when(patientSessionRegistry.register("session-1", 5L)).thenReturn(true);
+
+        Message<?> result = interceptor.preSend(connect("5", "secret"), null);
+
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(result, StompHeaderAccessor.class);
+        assertThat(accessor.getUser().getName()).isEqualTo(PatientSessionRegistry.principalOf(5L).getName());
+        verify(patientSessionRegistry).register("session-1", 5L);
+    }
+
+    @Test
+    void connectWithoutReceptionIdIsLeftAlone() {
+        Message<?> message = connect(null, null);
+
+        assertThat(interceptor.preSend(message, null)).isSameAs(message);
+        verify(receptionAccessService, never()).isValid(any(), any());
+    }
+
+    private static Message<byte[]> connect(String receptionId, String token) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.CONNECT);
+        accessor.setSessionId("session-1");
+        if (receptionId != null) {
+            accessor.setNativeHeader("receptionId", receptionId);
+        }
+        if (token != null) {
+            accessor.setNativeHeader("accessToken", token);
+        }
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
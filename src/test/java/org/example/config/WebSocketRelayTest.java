@@ -0,0 +1,170 @@
+package org.example.config;
+
+import org.example.PostgresIntegrationTest;
+import org.example.dto.PatientRegistrationRequest;
+import org.example.service.ReceptionService;
+import org.example.service.WebSocketChannelMetrics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+/**
+ * relay 모드: 인스턴스 하나임을 확인하지 않으면 시작하지 않고, 확인하면 대기열 이벤트가 외부 브로커로 전달된다
+ * 외부 브로커 대신 프레임을 기록하는 테스트용 STOMP 서버를 띄운다.
+ */
+class WebSocketRelayTest extends PostgresIntegrationTest {
+
+    private static final StompStandIn BROKER = new StompStandIn();
+
+    @Autowired
+    private ReceptionService receptionService;
+
+    @DynamicPropertySource
+    static void relayProperties(DynamicPropertyRegistry registry) throws IOException {
+        BROKER.start();
+        registry.add("websocket.broker.mode", () -> "relay");
+        registry.add("websocket.broker.single-instance", () -> "true");
+        registry.add("websocket.broker.relay-host", () -> "127.0.0.1");
+        registry.add("websocket.broker.relay-port", BROKER::getPort);
+    }
+
+    @AfterAll
+    static void stopBroker() throws IOException {
+        BROKER.stop();
+    }
+
+    @Test
+    void queueEventsAreSentThroughRelay() throws Exception {
+        assertThat(BROKER.connected.await(10, TimeUnit.SECONDS)).isTrue();
+
+        PatientRegistrationRequest request = new PatientRegistrationRequest();
+        request.setName("중계환자");
+        request.setBirthDate(LocalDate.of(1990, 5, 5));
+        request.setPhoneNumber("010-5555-0000");
+        Long receptionId = receptionService.registerPatient(request).getId();
+
+        String expected = "\"receptionId\":" + receptionId;
+        long deadline = System.currentTimeMillis() + 10000;
+        while (System.currentTimeMillis() < deadline && !BROKER.hasSend("/topic/waiting-queue", expected)) {
+            Thread.sleep(50);
+        }
+        assertThat(BROKER.hasSend("/topic/waiting-queue", expected)).isTrue();
+    }
+
+    @Test
+    void relayWithoutSingleInstanceRefusesToStart() {
+        WebSocketProperties properties = new WebSocketProperties();
+        properties.getBroker().setMode(WebSocketProperties.BrokerMode.RELAY);
+        WebSocketConfig config = new WebSocketConfig(mock(PatientChannelInterceptor.class), properties,
+            mock(WebSocketChannelMetrics.class));
+
+        assertThatThrownBy(() -> config.configureMessageBroker(
+                new MessageBrokerRegistry(new ExecutorSubscribableChannel(), new ExecutorSubscribableChannel())))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("single-instance");
+    }
+
+    /**
+     * 최소한의 STOMP 서버 (CONNECT에 CONNECTED로 응답하고 받은 SEND 프레임을 기록)
+     */
+    static final class StompStandIn {
+
+        final CountDownLatch connected = new CountDownLatch(1);
+        private final List<String> sends = new CopyOnWriteArrayList<>();
+        private ServerSocket serverSocket;
+
+        void start() throws IOException {
+            if (serverSocket != null) {
+                return;
+            }
+            serverSocket = new ServerSocket(0);
+            Thread acceptor = new Thread(() -> {
+                while (!serverSocket.isClosed()) {
+                    try {
+                        Socket socket = serverSocket.accept();
+                        Thread reader = new Thread(() -> serve(socket), "stomp-stand-in-session");
+                        reader.setDaemon(true);
+                        reader.start();
+                    } catch (IOException e) {
+                        return;
+                    }
+                }
+            }, "stomp-stand-in");
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        int getPort() {
+            return serverSocket.getLocalPort();
+        }
+
+        void stop() throws IOException {
+            serverSocket.close();
+        }
+
+        boolean hasSend(String destination, String bodyPart) {
+            for (String frame : sends) {
+                if (frame.contains("destination:" + destination + "\n") && frame.contains(bodyPart)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void serve(Socket socket) {
+            try (Socket s = socket; InputStream in = s.getInputStream(); OutputStream out = s.getOutputStream()) {
+                String frame;
+                while ((frame = readFrame(in)) != null) {
+                    if (frame.startsWith("CONNECT") || frame.startsWith("STOMP")) {
+                        out.write("CONNECTED\nversion:1.2\nheart-beat:0,0\n\n\0".getBytes(StandardCharsets.UTF_8));
+                        out.flush();
+                        connected.countDown();
+                    } else if (frame.startsWith("SEND")) {
+                        sends.add(frame);
+                    }
+                }
+            } catch (IOException e) {
+                // 연결 종료
+            }
+        }
+
+        /**
+         * NUL로 끝나는 프레임 하나 (프레임 사이의 하트비트 줄바꿈은 건너뜀)
+         */
+        private static String readFrame(InputStream in) throws IOException {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            int b;
+            while ((b = in.read()) != -1) {
+                if (b == 0) {
+                    return new String(buffer.toByteArray(), StandardCharsets.UTF_8);
+                }
+                if (buffer.size() == 0 && (b == '\n' || b == '\r')) {
+                    continue;
+                }
+                buffer.write(b);
+            }
+            return null;
+        }
+    }
+}
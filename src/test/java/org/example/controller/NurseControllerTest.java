@@ -0,0 +1,71 @@
+package org.example.controller;
+
+import org.example.service.PrescriptionService;
+import org.example.service.ReceptionService;
+import org.example.service.SmsService;
+import org.example.service.StatisticsService;
+import org.example.service.WaitingQueueService;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 레인 변경, 레인 설정 요청의 입력 검증 (잘못된 값은 500이 아니라 400)
+ */
+class NurseControllerTest {
+
+    private final ReceptionService receptionService = mock(ReceptionService.class);
+    private final WaitingQueueService waitingQueueService = mock(WaitingQueueService.class);
+    private final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new NurseController(receptionService,
+        mock(PrescriptionService.class), mock(StatisticsService.class), mock(SmsService.class), waitingQueueService)).build();
+
+    @Test
+    void invalidLaneIsBadRequest() throws Exception {
+        mockMvc.perform(put("/api/nurse/reception/1/lane").contentType(MediaType.APPLICATION_JSON).content("{\"lane\":\"EMERGENCYY\"}"))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(put("/api/nurse/reception/1/lane").contentType(MediaType.APPLICATION_JSON).content("{}"))
+            .andExpect(status().isBadRequest());
+
+        verify(receptionService, never()).changePriorityLane(anyLong(), any());
+    }
+
+    @Test
+    void validLaneIsAccepted() throws Exception {
+        mockMvc.perform(put("/api/nurse/reception/1/lane").contentType(MediaType.APPLICATION_JSON).content("{\"lane\":\"EMERGENCY\"}"))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    void invalidLaneSettingsAreBadRequest() throws Exception {
+        String[] bodies = {
+            "{\"agingRate\":\"fast\"}",
+            "{\"agingRate\":0}",
+            "{\"laneWeights\":[1,2]}",
+            "{\"laneWeights\":{\"VIP\":10}}",
+            "{\"laneWeights\":{\"EMERGENCY\":\"10\"}}",
+            "{\"laneWeights\":{\"EMERGENCY\":1.5}}"
+        };
+        for (String body : bodies) {
+            mockMvc.perform(put("/api/nurse/queue-lanes").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isBadRequest());
+        }
+
+        verify(waitingQueueService, never()).updateLaneSettings(any(), any());
+    }
+
+    @Test
+    void validLaneSettingsAreAccepted() throws Exception {
+        mockMvc.perform(put("/api/nurse/queue-lanes").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"agingRate\":1.5,\"laneWeights\":{\"EMERGENCY\":60,\"elderly\":10}}"))
+            .andExpect(status().isOk());
+    }
+}
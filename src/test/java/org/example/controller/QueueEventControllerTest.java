@@ -0,0 +1,70 @@
+package org.example.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.config.QueueConfig;
+import org.example.dto.QueueDeltaEvent;
+import org.example.model.Reception.ReceptionStatus;
+import org.example.service.QueueEventLog;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 재연결 시 다시 보내는 대기열 이벤트에 개인정보가 담기지 않는지 확인 (인증 없이 호출 가능한 API)
+ */
+class QueueEventControllerTest {
+
+    // 공개해도 되는 필드만 (이름, 전화번호 등이 추가되면 이 테스트가 실패해야 한다)
+    private static final Set<String> PUBLIC_FIELDS = new HashSet<>(Arrays.asList(
+        "type", "seq", "op", "receptionId", "fromStatus", "toStatus", "fromPosition", "toPosition",
+        "roomNumber", "confirmedCount", "pendingCount", "timestamp"));
+
+    private final QueueEventLog queueEventLog = new QueueEventLog(new QueueConfig());
+    private final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new QueueEventController(queueEventLog)).build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void replayedEventsCarryNoPatientInformation() throws Exception {
+        queueEventLog.append(QueueDeltaEvent.builder()
+            .seq(1)
+            .op(QueueDeltaEvent.Op.ADDED)
+            .receptionId(10L)
+            .toStatus(ReceptionStatus.PENDING)
+            .toPosition(1)
+            .pendingCount(1)
+            .build());
+        queueEventLog.append(QueueDeltaEvent.builder()
+            .seq(2)
+            .op(QueueDeltaEvent.Op.MOVED)
+            .receptionId(10L)
+            .fromStatus(ReceptionStatus.PENDING)
+            .toStatus(ReceptionStatus.CALLED)
+            .fromPosition(1)
+            .roomNumber(2)
+            .build());
+
+        String body = mockMvc.perform(get("/api/queue/events").param("since", "0"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+
+        JsonNode response = objectMapper.readTree(body);
+        assertThat(response.get("type").asText()).isEqualTo("QUEUE_REPLAY");
+        assertThat(response.get("events")).hasSize(2);
+        for (JsonNode event : response.get("events")) {
+            List<String> fields = new ArrayList<>();
+            event.fieldNames().forEachRemaining(fields::add);
+            assertThat(PUBLIC_FIELDS).containsAll(fields);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package org.example.service;
+
+import org.example.config.QueueConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 예상 대기 시간: 진료 시간 지수 가중 평균, 이상치 제외, 표본이 없을 때 기본 처리율
+ */
+class ConsultationTimeEstimatorTest {
+
+    private QueueConfig queueConfig;
+    private ConsultationTimeEstimator estimator;
+
+    @BeforeEach
+    void setUp() {
+        queueConfig = new QueueConfig();
+        queueConfig.setRooms(1);
+        queueConfig.setDefaultConsultationMinutes(3);
+        queueConfig.setEstimatorAlpha(0.5);
+        estimator = new ConsultationTimeEstimator(queueConfig);
+    }
+
+    @Test
+    void nextPatientWaitsZeroMinutes() {
+        assertThat(estimator.estimateWaitMinutes(1)).isZero();
+        assertThat(estimator.estimateWaitMinutes(0)).isZero();
+    }
+
+    @Test
+    void withoutSamplesUsesDefaultThroughput() {
+        // 진료실 1개, 기본 3분 -> 앞에 4명이면 12분
+        assertThat(estimator.estimateWaitMinutes(5)).isEqualTo(12);
+
+        queueConfig.setRooms(2);
+        assertThat(estimator.estimateWaitMinutes(5)).isEqualTo(6);
+    }
+
+    @Test
+    void samplesUpdateExponentialAverage() {
+        LocalDateTime calledAt = currentHour();
+
+        estimator.recordConsultation(1, calledAt, calledAt.plusMinutes(4));
+        // 첫 표본은 그대로 평균
+        assertThat(estimator.estimateWaitMinutes(2)).isEqualTo(4);
+
+        estimator.recordConsultation(1, calledAt, calledAt.plusMinutes(12));
+        // 4 + 0.5 × (12 - 4) = 8
+        assertThat(estimator.estimateWaitMinutes(2)).isEqualTo(8);
+        assertThat(estimator.estimateWaitMinutes(3)).isEqualTo(16);
+    }
+
+    @Test
+    void outlierAndNonPositiveSamplesAreExcluded() {
+        LocalDateTime calledAt = currentHour();
+
+        estimator.recordConsultation(1, calledAt, calledAt.plusMinutes(241));
+        estimator.recordConsultation(1, calledAt, calledAt);
+        estimator.recordConsultation(1, calledAt, calledAt.minusMinutes(5));
+        estimator.recordConsultation(1, null, calledAt);
+
+        assertThat(estimator.estimateWaitMinutes(5)).isEqualTo(12);
+    }
+
+    @Test
+    void sampleAtLimitIsKept() {
+        LocalDateTime calledAt = currentHour();
+
+        estimator.recordConsultation(1, calledAt, calledAt.plusMinutes(240));
+
+        assertThat(estimator.estimateWaitMinutes(2)).isEqualTo(240);
+    }
+
+    private static LocalDateTime currentHour() {
+        // 추정은 현재 시간대 평균을 쓰므로 같은 시간대에 호출된 표본으로 만든다
+        return LocalDateTime.now().withMinute(0).withSecond(0).withNano(0);
+    }
+}
@@ -0,0 +1,173 @@
+package org.example.service;
+
+import org.example.PostgresIntegrationTest;
+import org.example.config.QueueConfig;
+import org.example.dto.PatientRegistrationRequest;
+import org.example.dto.ReceptionResponse;
+import org.example.model.Reception;
+import org.example.model.Reception.PriorityLane;
+import org.example.model.Reception.ReceptionStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 레인 설정 변경: 커밋 후에만 설정 적용, 인덱스는 바뀐 CONFIRMED 항목만 키 변경
+ */
+class LaneSettingsTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private WaitingQueueService waitingQueueService;
+
+    @Autowired
+    private ReceptionService receptionService;
+
+    @Autowired
+    private QueueConfig queueConfig;
+
+    private double originalAgingRate;
+    private Map<PriorityLane, Integer> originalWeights;
+
+    @BeforeEach
+    void rememberSettings() {
+        originalAgingRate = queueConfig.getAgingRate();
+        originalWeights = new EnumMap<>(PriorityLane.class);
+        originalWeights.putAll(queueConfig.getLaneWeights());
+    }
+
+    @AfterEach
+    void restoreSettings() {
+        queueConfig.setAgingRate(originalAgingRate);
+        queueConfig.setLaneWeights(originalWeights);
+    }
+
+    @Test
+    void rolledBackUpdateKeepsPreviousSettings() {
+        new TransactionTemplate(transactionManager).execute(status -> {
+            waitingQueueService.updateLaneSettings(7.0, Collections.singletonMap(PriorityLane.EMERGENCY, 999));
+            status.setRollbackOnly();
+            return null;
+        });
+
+        assertThat(queueConfig.getAgingRate()).isEqualTo(originalAgingRate);
+        assertThat(queueConfig.getLaneWeights().get(PriorityLane.EMERGENCY)).isEqualTo(originalWeights.get(PriorityLane.EMERGENCY));
+    }
+
+    @Test
+    void updateReordersConfirmedEntriesAndKeepsInFlightRegistration() throws Exception {
+        Reception normal = createReception("일반", ReceptionStatus.CONFIRMED, 60);
+        Reception elderly = createReception("어르신", ReceptionStatus.CONFIRMED, 70);
+        elderly.setPriorityLane(PriorityLane.ELDERLY);
+        receptionRepository.save(elderly);
+        waitingQueueIndex.rebuild();
+        assertThat(waitingQueueIndex.confirmedAt(1).getId()).isEqualTo(normal.getId());
+
+        CountDownLatch registered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // 커밋 전 접수 (인덱스에는 이미 반영된 상태)
+            Future<Long> registration = executor.submit(() -> new TransactionTemplate(transactionManager).execute(status -> {
+                ReceptionResponse response = receptionService.registerPatient(registrationRequest("신규환자", false));
+                registered.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return response.getId();
+            }));
+            assertThat(registered.await(10, TimeUnit.SECONDS)).isTrue();
+
+            // 고령자 레인 30분 가중 (가산점 1/분) -> 10분 늦게 확인된 고령자가 앞으로
+            Map<PriorityLane, Integer> weights = new EnumMap<>(PriorityLane.class);
+            weights.put(PriorityLane.ELDERLY, 30);
+            waitingQueueService.updateLaneSettings(1.0, weights);
+
+            assertThat(waitingQueueIndex.confirmedAt(1).getId()).isEqualTo(elderly.getId());
+            assertThat(waitingQueueIndex.confirmedAt(2).getId()).isEqualTo(normal.getId());
+            assertThat(queueConfig.getLaneWeights().get(PriorityLane.ELDERLY)).isEqualTo(30);
+            // 전체 재구성이었다면 커밋 전 접수가 인덱스에서 사라졌을 것
+            assertThat(waitingQueueIndex.getPendingCount()).isEqualTo(1);
+
+            release.countDown();
+            Long registeredId = registration.get(10, TimeUnit.SECONDS);
+            assertThat(waitingQueueIndex.getWaitingPosition(registeredId)).isEqualTo(3);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void guardianRegistrationIsPlacedInGuardianLane() {
+        ReceptionResponse response = receptionService.registerPatient(registrationRequest("보호자접수", true));
+
+        assertThat(response.getIsGuardian()).isTrue();
+        assertThat(response.getPriorityLane()).isEqualTo(PriorityLane.GUARDIAN);
+    }
+
+    @Test
+    void laneChangeRetriesWhenSmsUpdateBumpsVersion() throws Exception {
+        Reception reception = createReception("응급지정", ReceptionStatus.CONFIRMED, 5);
+        waitingQueueIndex.rebuild();
+        AtomicInteger laneChanges = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            // 간호사의 레인 변경과 SMS 알림 설정 변경이 같은 행의 버전을 동시에 올린다
+            Future<?> lanes = executor.submit(() -> {
+                for (int i = 0; i < 20; i++) {
+                    try {
+                        receptionService.changePriorityLane(reception.getId(), PriorityLane.EMERGENCY);
+                        laneChanges.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        // 재시도를 모두 소진하면 업무 오류로 끝나야 한다 (덮어쓰기 없이)
+                        assertThat(e.getMessage()).isEqualTo("다른 요청과 동시에 처리되어 상태를 변경하지 못했습니다. 다시 시도해주세요.");
+                    }
+                }
+            });
+            Future<?> sms = executor.submit(() -> {
+                for (int i = 0; i < 20; i++) {
+                    receptionService.updateSmsNotification(reception.getId(), i % 2 == 0);
+                }
+            });
+            lanes.get(30, TimeUnit.SECONDS);
+            sms.get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // 성공한 레인 변경과 SMS 설정 변경이 모두 버전에 남았다 (순번 알림 발송 표시도 버전을 올릴 수 있다)
+        Reception result = receptionRepository.findById(reception.getId()).get();
+        assertThat(laneChanges.get()).isPositive();
+        assertThat(result.getVersion()).isGreaterThanOrEqualTo(reception.getVersion() + 20 + laneChanges.get());
+        assertThat(result.getPriorityLane()).isEqualTo(PriorityLane.EMERGENCY);
+        assertThat(result.getPriorityAt()).isEqualTo(waitingQueueService.computePriorityAt(PriorityLane.EMERGENCY, result.getConfirmedAt()));
+        assertThat(result.getSmsNotificationEnabled()).isFalse();
+    }
+
+    private static PatientRegistrationRequest registrationRequest(String name, boolean isGuardian) {
+        PatientRegistrationRequest request = new PatientRegistrationRequest();
+        request.setName(name);
+        request.setBirthDate(LocalDate.of(1990, 5, 5));
+        request.setPhoneNumber("010-5555-0000");
+        request.setIsGuardian(isGuardian);
+        return request;
+    }
+}
@@ -0,0 +1,133 @@
+package org.example.service;
+
+import org.example.model.Reception.ReceptionStatus;
+import org.example.service.WaitingQueueIndex.OrderStatisticTree;
+import org.example.service.WaitingQueueIndex.QueueKey;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 대기열 인덱스의 순위 트리 (삽입, 삭제, 순위, 순위로 조회, 키 변경)
+ */
+class OrderStatisticTreeTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2026, 1, 5, 9, 0);
+
+    private static QueueKey key(long id, int minute) {
+        return QueueKey.restore(id, ReceptionStatus.CONFIRMED, BASE.plusMinutes(minute), null);
+    }
+
+    @Test
+    void insertKeepsKeysInTimeThenIdOrder() {
+        OrderStatisticTree tree = new OrderStatisticTree();
+        QueueKey late = key(1, 30);
+        QueueKey early = key(2, 10);
+        QueueKey sameTimeHigherId = key(4, 20);
+        QueueKey sameTimeLowerId = key(3, 20);
+
+        tree.insert(late);
+        tree.insert(early);
+        tree.insert(sameTimeHigherId);
+        tree.insert(sameTimeLowerId);
+
+        assertThat(tree.size()).isEqualTo(4);
+        assertThat(tree.rank(early)).isEqualTo(1);
+        assertThat(tree.rank(sameTimeLowerId)).isEqualTo(2);
+        assertThat(tree.rank(sameTimeHigherId)).isEqualTo(3);
+        assertThat(tree.rank(late)).isEqualTo(4);
+
+        List<QueueKey> inOrder = new ArrayList<>();
+        tree.collectInOrder(inOrder);
+        assertThat(inOrder).containsExactly(early, sameTimeLowerId, sameTimeHigherId, late);
+    }
+
+    @Test
+    void removeShiftsLaterRanksAndUnknownKeyHasNoRank() {
+        OrderStatisticTree tree = new OrderStatisticTree();
+        QueueKey first = key(1, 1);
+        QueueKey second = key(2, 2);
+        QueueKey third = key(3, 3);
+        tree.insert(first);
+        tree.insert(second);
+        tree.insert(third);
+
+        tree.remove(second);
+
+        assertThat(tree.size()).isEqualTo(2);
+        assertThat(tree.rank(second)).isZero();
+        assertThat(tree.rank(third)).isEqualTo(2);
+
+        // 없는 키 삭제는 아무 영향 없음
+        tree.remove(key(99, 50));
+        assertThat(tree.size()).isEqualTo(2);
+    }
+
+    @Test
+    void selectReturnsKeyAtRankAndNullOutOfRange() {
+        OrderStatisticTree tree = new OrderStatisticTree();
+        for (int i = 1; i <= 5; i++) {
+            tree.insert(key(i, 10 - i));
+        }
+
+        assertThat(tree.select(1).getId()).isEqualTo(5);
+        assertThat(tree.select(5).getId()).isEqualTo(1);
+        assertThat(tree.select(0)).isNull();
+        assertThat(tree.select(6)).isNull();
+        assertThat(new OrderStatisticTree().select(1)).isNull();
+    }
+
+    @Test
+    void reKeyMovesEntryToItsNewRank() {
+        OrderStatisticTree tree = new OrderStatisticTree();
+        QueueKey a = key(1, 10);
+        QueueKey b = key(2, 20);
+        QueueKey c = key(3, 30);
+        tree.insert(a);
+        tree.insert(b);
+        tree.insert(c);
+
+        // 응급 레인 지정처럼 기준 시각이 앞당겨지면 같은 접수가 맨 앞으로 이동
+        QueueKey promoted = key(3, 0);
+        tree.remove(c);
+        tree.insert(promoted);
+
+        assertThat(tree.size()).isEqualTo(3);
+        assertThat(tree.rank(c)).isZero();
+        assertThat(tree.rank(promoted)).isEqualTo(1);
+        assertThat(tree.rank(a)).isEqualTo(2);
+        assertThat(tree.select(3)).isEqualTo(b);
+    }
+
+    @Test
+    void ranksMatchSortedListUnderRandomInsertsAndRemoves() {
+        OrderStatisticTree tree = new OrderStatisticTree();
+        List<QueueKey> expected = new ArrayList<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 2000; i++) {
+            if (expected.isEmpty() || random.nextInt(3) > 0) {
+                QueueKey key = key(i, random.nextInt(500));
+                tree.insert(key);
+                expected.add(key);
+            } else {
+                QueueKey removed = expected.remove(random.nextInt(expected.size()));
+                tree.remove(removed);
+            }
+        }
+        Collections.sort(expected);
+
+        assertThat(tree.size()).isEqualTo(expected.size());
+        for (int rank = 1; rank <= expected.size(); rank++) {
+            QueueKey key = expected.get(rank - 1);
+            assertThat(tree.rank(key)).isEqualTo(rank);
+            assertThat(tree.select(rank)).isEqualTo(key);
+        }
+    }
+}
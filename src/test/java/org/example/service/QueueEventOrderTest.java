@@ -0,0 +1,97 @@
+package org.example.service;
+
+import org.example.PostgresIntegrationTest;
+import org.example.dto.QueueDeltaEvent;
+import org.example.model.Reception;
+import org.example.model.Reception.ReceptionStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 대기열 이벤트 순번은 커밋된 순서대로 붙는다 (먼저 변경했어도 늦게 커밋하면 뒤 순번)
+ */
+class QueueEventOrderTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private ReceptionService receptionService;
+
+    @Autowired
+    private QueueEventLog queueEventLog;
+
+    @Test
+    void laterCommitGetsLaterSeq() throws Exception {
+        Reception first = createReception("먼저변경", ReceptionStatus.PENDING, 1);
+        Reception second = createReception("먼저커밋", ReceptionStatus.PENDING, 2);
+        waitingQueueIndex.rebuild();
+        long startSeq = waitingQueueIndex.getSeq();
+
+        CountDownLatch changed = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // 첫 번째 접수를 확인한 트랜잭션은 커밋하지 않고 기다린다
+            Future<?> slow = executor.submit(() -> transaction.execute(status -> {
+                receptionService.confirmReception(first.getId());
+                changed.countDown();
+                await(release);
+                return null;
+            }));
+            assertThat(changed.await(10, TimeUnit.SECONDS)).isTrue();
+
+            receptionService.confirmReception(second.getId());
+            List<QueueDeltaEvent> committed = queueEventLog.since(startSeq);
+            assertThat(committed).extracting(QueueDeltaEvent::getReceptionId).containsExactly(second.getId());
+            assertThat(committed.get(0).getSeq()).isEqualTo(startSeq + 1);
+
+            release.countDown();
+            slow.get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // 늦게 커밋한 변경은 앞서 전송된 순번 바로 뒤에 이어진다 (클라이언트가 N+1을 N보다 먼저 받지 않음)
+        List<QueueDeltaEvent> events = queueEventLog.since(startSeq);
+        assertThat(events).extracting(QueueDeltaEvent::getReceptionId).containsExactly(second.getId(), first.getId());
+        assertThat(events).extracting(QueueDeltaEvent::getSeq).containsExactly(startSeq + 1, startSeq + 2);
+        assertThat(waitingQueueIndex.getSeq()).isEqualTo(startSeq + 2);
+    }
+
+    @Test
+    void rolledBackChangeConsumesNoSeq() {
+        Reception reception = createReception("롤백", ReceptionStatus.PENDING, 1);
+        waitingQueueIndex.rebuild();
+        long startSeq = waitingQueueIndex.getSeq();
+
+        new TransactionTemplate(transactionManager).execute(status -> {
+            receptionService.confirmReception(reception.getId());
+            status.setRollbackOnly();
+            return null;
+        });
+
+        // 전송되지 않은 변경은 순번을 받지 않으므로 되돌린 변경만 다음 순번으로 전송된다
+        List<QueueDeltaEvent> events = queueEventLog.since(startSeq);
+        assertThat(events).hasSize(1);
+        assertThat(events.get(0).getSeq()).isEqualTo(startSeq + 1);
+        assertThat(events.get(0).getToStatus()).isEqualTo(ReceptionStatus.PENDING);
+        assertThat(waitingQueueIndex.getWaitingPosition(reception.getId())).isEqualTo(1);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package org.example.service;
+
+import org.example.PostgresIntegrationTest;
+import org.example.dto.PatientRegistrationRequest;
+import org.example.model.Reception;
+import org.example.model.Reception.ReceptionStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 진료일 마감: 지난 진료일 접수만 인덱스에서 빼고, 마감 중 진행 중인 접수는 유지
+ */
+class QueueRolloverTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private QueueRolloverService queueRolloverService;
+
+    @Autowired
+    private ReceptionService receptionService;
+
+    @Test
+    void rolloverRemovesStaleEntriesAndKeepsInFlightRegistration() throws Exception {
+        Reception stale = createReception("어제환자", ReceptionStatus.CONFIRMED, 1);
+        stale.setServiceDate(LocalDate.now().minusDays(1));
+        receptionRepository.save(stale);
+        // 자정 전에 올라가 있던 항목
+        waitingQueueIndex.onConfirmed(stale);
+        assertThat(waitingQueueIndex.getConfirmedCount()).isEqualTo(1);
+
+        CountDownLatch registered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Long> registration = executor.submit(() -> new TransactionTemplate(transactionManager).execute(status -> {
+                PatientRegistrationRequest request = new PatientRegistrationRequest();
+                request.setName("자정접수");
+                request.setBirthDate(LocalDate.of(1995, 3, 3));
+                request.setPhoneNumber("010-7777-0000");
+                Long id = receptionService.registerPatient(request).getId();
+                registered.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return id;
+            }));
+            assertThat(registered.await(10, TimeUnit.SECONDS)).isTrue();
+
+            queueRolloverService.rolloverScheduled();
+
+            assertThat(receptionRepository.findById(stale.getId()).get().getStatus()).isEqualTo(ReceptionStatus.CLOSED);
+            assertThat(waitingQueueIndex.getConfirmedCount()).isZero();
+            assertThat(waitingQueueIndex.getPendingCount()).isEqualTo(1);
+
+            release.countDown();
+            Long registeredId = registration.get(10, TimeUnit.SECONDS);
+            assertThat(waitingQueueIndex.getWaitingPosition(registeredId)).isEqualTo(1);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void rolloverWaitsForRowsLockedDuringFirstPass() throws Exception {
+        Reception stale = createReception("잠긴환자", ReceptionStatus.CONFIRMED, 1);
+        stale.setServiceDate(LocalDate.now().minusDays(1));
+        receptionRepository.save(stale);
+
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            // 자정 직전 요청이 지난 진료일 행을 잠근 채 진행 중
+            Future<?> holder = executor.submit(() -> new TransactionTemplate(transactionManager).execute(status -> {
+                jdbcTemplate.queryForList("SELECT id FROM receptions WHERE id = ? FOR UPDATE", stale.getId());
+                locked.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return null;
+            }));
+            assertThat(locked.await(10, TimeUnit.SECONDS)).isTrue();
+
+            Future<Integer> rollover = executor.submit(() -> queueRolloverService.rollover());
+            // 건너뛰고 끝내지 않고 잠금이 풀리기를 기다린다 (테스트 lock_timeout 1초 안에 해제)
+            Thread.sleep(300);
+            assertThat(rollover.isDone()).isFalse();
+
+            release.countDown();
+            holder.get(10, TimeUnit.SECONDS);
+            assertThat(rollover.get(10, TimeUnit.SECONDS)).isEqualTo(1);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+
+        assertThat(receptionRepository.findById(stale.getId()).get().getStatus()).isEqualTo(ReceptionStatus.CLOSED);
+    }
+}
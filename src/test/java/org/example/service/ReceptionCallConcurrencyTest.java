@@ -0,0 +1,151 @@
+package org.example.service;
+
+import org.example.PostgresIntegrationTest;
+import org.example.dto.PatientInfoResponse;
+import org.example.model.Reception;
+import org.example.model.Reception.ReceptionStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 의사 호출(다음 환자 선점)과 간호사 확인 처리가 서로 잠금을 기다리지 않는지 확인
+ * 모든 커넥션에 lock_timeout = 1s가 걸려 있으므로 행 잠금을 기다리면 예외가 난다.
+ */
+class ReceptionCallConcurrencyTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private ReceptionService receptionService;
+
+    @Test
+    void confirmAndSmsUpdateDoNotWaitOnOpenCallTransaction() throws Exception {
+        Reception first = createReception("김첫째", ReceptionStatus.CONFIRMED, 1);
+        Reception second = createReception("이둘째", ReceptionStatus.CONFIRMED, 2);
+        Reception pending = createReception("박대기", ReceptionStatus.PENDING, 3);
+        waitingQueueIndex.rebuild();
+
+        CountDownLatch claimed = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            // 호출 트랜잭션을 커밋하지 않은 채 열어 두어 선점한 행의 잠금을 유지
+            Future<Long> call = executor.submit(() -> new TransactionTemplate(transactionManager).execute(status -> {
+                PatientInfoResponse called = receptionService.callNextPatient(1);
+                claimed.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return called.getCurrentReceptionId();
+            }));
+            assertThat(claimed.await(10, TimeUnit.SECONDS)).isTrue();
+
+            // 그동안 다른 행의 확인 처리와 SMS 설정 변경은 바로 끝나야 한다
+            Future<?> confirm = executor.submit(() -> {
+                receptionService.confirmReception(pending.getId());
+                receptionService.updateSmsNotification(second.getId(), true);
+            });
+            confirm.get(5, TimeUnit.SECONDS);
+
+            release.countDown();
+            assertThat(call.get(10, TimeUnit.SECONDS)).isEqualTo(first.getId());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+
+        assertThat(receptionRepository.findById(first.getId()).get().getStatus()).isEqualTo(ReceptionStatus.CALLED);
+        assertThat(receptionRepository.findById(pending.getId()).get().getStatus()).isEqualTo(ReceptionStatus.CONFIRMED);
+        assertThat(receptionRepository.findById(second.getId()).get().getSmsNotificationEnabled()).isTrue();
+    }
+
+    @Test
+    void parallelCallsAndConfirmsFinishWithoutLockWaits() throws Exception {
+        int confirmedCount = 24;
+        int pendingCount = 24;
+        int rooms = 4;
+        for (int i = 0; i < confirmedCount; i++) {
+            createReception("확인" + i, ReceptionStatus.CONFIRMED, i);
+        }
+        List<Long> pendingIds = new ArrayList<>();
+        for (int i = 0; i < pendingCount; i++) {
+            pendingIds.add(createReception("대기" + i, ReceptionStatus.PENDING, confirmedCount + i).getId());
+        }
+        waitingQueueIndex.rebuild();
+
+        ConcurrentLinkedQueue<Long> calledIds = new ConcurrentLinkedQueue<>();
+        ConcurrentLinkedQueue<Throwable> errors = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(rooms * 2);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // 진료실마다 의사 한 명이 호출 -> 진료 완료를 반복
+        for (int room = 1; room <= rooms; room++) {
+            int roomNumber = room;
+            futures.add(executor.submit(() -> {
+                awaitQuietly(start);
+                for (int i = 0; i < confirmedCount / rooms; i++) {
+                    try {
+                        Long id = receptionService.callNextPatient(roomNumber).getCurrentReceptionId();
+                        calledIds.add(id);
+                        receptionService.completeReception(id);
+                    } catch (Throwable e) {
+                        errors.add(e);
+                    }
+                }
+            }));
+        }
+        // 간호사들이 동시에 대기 접수를 확인
+        for (int nurse = 0; nurse < rooms; nurse++) {
+            int offset = nurse;
+            futures.add(executor.submit(() -> {
+                awaitQuietly(start);
+                for (int i = offset; i < pendingIds.size(); i += rooms) {
+                    try {
+                        receptionService.confirmReception(pendingIds.get(i));
+                    } catch (Throwable e) {
+                        errors.add(e);
+                    }
+                }
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertThat(errors).isEmpty();
+        // 같은 환자를 두 진료실이 호출하지 않는다
+        Set<Long> distinct = new HashSet<>(calledIds);
+        assertThat(distinct).hasSize(calledIds.size());
+        assertThat(calledIds).hasSize(confirmedCount);
+        for (Long id : pendingIds) {
+            assertThat(receptionRepository.findById(id).get().getStatus()).isIn(ReceptionStatus.CONFIRMED, ReceptionStatus.CALLED,
+                ReceptionStatus.COMPLETED);
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
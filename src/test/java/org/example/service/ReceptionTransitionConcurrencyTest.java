@@ -0,0 +1,102 @@
+package org.example.service;
+
+import org.example.PostgresIntegrationTest;
+import org.example.model.Reception;
+import org.example.model.Reception.ReceptionStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 같은 접수에 동시에 들어온 상태 전이: 한 요청만 반영되고 나머지는 깔끔하게 실패, 버전은 한 번만 증가
+ */
+class ReceptionTransitionConcurrencyTest extends PostgresIntegrationTest {
+
+    private static final int ROUNDS = 20;
+
+    @Autowired
+    private ReceptionService receptionService;
+
+    @Test
+    void parallelConfirmsOfSameReceptionHaveExactlyOneWinner() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                Reception reception = createReception("동시확인" + round, ReceptionStatus.PENDING, round);
+                long initialVersion = reception.getVersion();
+                CyclicBarrier barrier = new CyclicBarrier(2);
+                Callable<Boolean> confirm = () -> {
+                    barrier.await(5, TimeUnit.SECONDS);
+                    receptionService.confirmReception(reception.getId());
+                    return true;
+                };
+
+                List<Future<Boolean>> futures = new ArrayList<>();
+                futures.add(executor.submit(confirm));
+                futures.add(executor.submit(confirm));
+
+                int winners = 0;
+                for (Future<Boolean> future : futures) {
+                    try {
+                        future.get(10, TimeUnit.SECONDS);
+                        winners++;
+                    } catch (ExecutionException e) {
+                        // 진 요청은 상태가 이미 바뀌었다는 업무 오류로 끝나야 한다 (잠금 대기 초과 등이 아님)
+                        assertThat(e.getCause()).isExactlyInstanceOf(RuntimeException.class);
+                        assertThat(e.getCause().getMessage()).isIn("이미 처리된 접수입니다.",
+                            "다른 요청과 동시에 처리되어 상태를 변경하지 못했습니다. 다시 시도해주세요.");
+                    }
+                }
+
+                Reception result = receptionRepository.findById(reception.getId()).get();
+                assertThat(winners).isEqualTo(1);
+                assertThat(result.getStatus()).isEqualTo(ReceptionStatus.CONFIRMED);
+                assertThat(result.getVersion()).isEqualTo(initialVersion + 1);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void conditionalUpdateWithStaleVersionChangesNothing() throws Exception {
+        Reception reception = createReception("버전확인", ReceptionStatus.PENDING, 1);
+        long readVersion = reception.getVersion();
+        LocalDateTime now = LocalDateTime.now();
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        // 두 요청이 같은 버전을 읽은 뒤 동시에 조건부 UPDATE
+        Callable<Integer> update = () -> {
+            barrier.await(5, TimeUnit.SECONDS);
+            return transaction.execute(status -> receptionRepository.confirmIfUnchanged(reception.getId(), readVersion,
+                ReceptionStatus.PENDING, ReceptionStatus.CONFIRMED, now, now));
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Integer> first = executor.submit(update);
+            Future<Integer> second = executor.submit(update);
+            int applied = first.get(10, TimeUnit.SECONDS) + second.get(10, TimeUnit.SECONDS);
+            assertThat(applied).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Reception result = receptionRepository.findById(reception.getId()).get();
+        assertThat(result.getStatus()).isEqualTo(ReceptionStatus.CONFIRMED);
+        assertThat(result.getVersion()).isEqualTo(readVersion + 1);
+    }
+}
@@ -0,0 +1,125 @@
+package org.example.service;
+
+import org.example.model.RuntimeSetting;
+import org.example.repository.RuntimeSettingRepository;
+import org.example.service.RuntimeSettingsService.RuntimeSettingsChanged;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 실행 설정: 저장하면 바로 반영, 다른 서버의 변경은 조회 주기에 version으로 감지, 바뀐 키만 이벤트로 알림
+ */
+class RuntimeSettingsServiceTest {
+
+    private final RuntimeSettingRepository runtimeSettingRepository = mock(RuntimeSettingRepository.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+
+    private RuntimeSettingsService runtimeSettingsService;
+
+    @BeforeEach
+    void setUp() {
+        when(runtimeSettingRepository.findAll()).thenReturn(Collections.singletonList(
+            setting(RuntimeSettingsService.SMS_NOTIFY_TIMING, "3", 1)));
+        runtimeSettingsService = new RuntimeSettingsService(runtimeSettingRepository, eventPublisher);
+        runtimeSettingsService.init();
+        reset(eventPublisher);
+    }
+
+    @Test
+    void putAppliesLocallyWithoutWaitingForPoll() {
+        when(runtimeSettingRepository.upsert(eq(RuntimeSettingsService.SMS_SIMULATION_MODE), eq("true"), any())).thenReturn(1);
+        when(runtimeSettingRepository.findAll()).thenReturn(Arrays.asList(
+            setting(RuntimeSettingsService.SMS_NOTIFY_TIMING, "3", 1),
+            setting(RuntimeSettingsService.SMS_SIMULATION_MODE, "true", 1)));
+
+        runtimeSettingsService.put(RuntimeSettingsService.SMS_SIMULATION_MODE, "true");
+
+        assertThat(runtimeSettingsService.getBoolean(RuntimeSettingsService.SMS_SIMULATION_MODE, false)).isTrue();
+        assertThat(publishedKeys()).containsExactly(RuntimeSettingsService.SMS_SIMULATION_MODE);
+    }
+
+    @Test
+    void putOfSameValueDoesNotRefresh() {
+        when(runtimeSettingRepository.upsert(anyString(), anyString(), any())).thenReturn(0);
+
+        runtimeSettingsService.put(RuntimeSettingsService.SMS_NOTIFY_TIMING, "3");
+
+        verify(runtimeSettingRepository, times(1)).findAll();
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void pollPicksUpVersionBumpFromAnotherWriter() {
+        assertThat(runtimeSettingsService.getInt(RuntimeSettingsService.SMS_NOTIFY_TIMING, 2)).isEqualTo(3);
+
+        // 변경이 없으면 이벤트도 없다
+        runtimeSettingsService.poll();
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+
+        when(runtimeSettingRepository.findAll()).thenReturn(Collections.singletonList(
+            setting(RuntimeSettingsService.SMS_NOTIFY_TIMING, "5", 2)));
+        runtimeSettingsService.poll();
+
+        assertThat(runtimeSettingsService.getInt(RuntimeSettingsService.SMS_NOTIFY_TIMING, 2)).isEqualTo(5);
+        assertThat(publishedKeys()).containsExactly(RuntimeSettingsService.SMS_NOTIFY_TIMING);
+    }
+
+    @Test
+    void deletedKeyFallsBackToDefault() {
+        when(runtimeSettingRepository.findAll()).thenReturn(Collections.emptyList());
+
+        runtimeSettingsService.poll();
+
+        assertThat(runtimeSettingsService.getInt(RuntimeSettingsService.SMS_NOTIFY_TIMING, 2)).isEqualTo(2);
+        assertThat(publishedKeys()).containsExactly(RuntimeSettingsService.SMS_NOTIFY_TIMING);
+    }
+
+    @Test
+    void deletedAndReinsertedKeyIsApplied() {
+        when(runtimeSettingRepository.findAll()).thenReturn(Collections.singletonList(
+            setting(RuntimeSettingsService.SMS_NOTIFY_TIMING, "4", 3)));
+        runtimeSettingsService.poll();
+
+        // 두 조회 사이에 삭제 후 다시 추가되어 version이 1부터 다시 시작 (이전보다 작음)
+        when(runtimeSettingRepository.findAll()).thenReturn(Collections.singletonList(
+            setting(RuntimeSettingsService.SMS_NOTIFY_TIMING, "1", 1)));
+        runtimeSettingsService.poll();
+        assertThat(runtimeSettingsService.getInt(RuntimeSettingsService.SMS_NOTIFY_TIMING, 2)).isEqualTo(1);
+
+        // 같은 version으로 다시 추가되어도 값이 다르면 반영
+        when(runtimeSettingRepository.findAll()).thenReturn(Collections.singletonList(
+            setting(RuntimeSettingsService.SMS_NOTIFY_TIMING, "6", 1)));
+        runtimeSettingsService.poll();
+        assertThat(runtimeSettingsService.getInt(RuntimeSettingsService.SMS_NOTIFY_TIMING, 2)).isEqualTo(6);
+
+        verify(eventPublisher, times(3)).publishEvent(any(RuntimeSettingsChanged.class));
+    }
+
+    private Set<String> publishedKeys() {
+        ArgumentCaptor<RuntimeSettingsChanged> captor = ArgumentCaptor.forClass(RuntimeSettingsChanged.class);
+        verify(eventPublisher, times(1)).publishEvent(captor.capture());
+        return captor.getValue().getKeys();
+    }
+
+    private static RuntimeSetting setting(String key, String value, long version) {
+        return new RuntimeSetting(key, value, version, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,85 @@
+package org.example.service;
+
+import org.example.config.SmsClientConfig;
+import org.example.service.SmsCircuitBreaker.State;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 차단기 상태 전이: CLOSED -> OPEN -> HALF_OPEN -> CLOSED (또는 다시 OPEN)
+ */
+class SmsCircuitBreakerTest {
+
+    private static final long OPEN_DURATION_MS = 100;
+
+    private SmsCircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        SmsClientConfig config = new SmsClientConfig();
+        config.setFailureThreshold(3);
+        config.setSlowCallMs(1000);
+        config.setOpenDurationMs(OPEN_DURATION_MS);
+        circuitBreaker = new SmsCircuitBreaker(config);
+    }
+
+    @Test
+    void opensAfterConsecutiveFailuresAndClosesAfterSuccessfulTrial() throws InterruptedException {
+        circuitBreaker.record(false, 10);
+        circuitBreaker.record(false, 10);
+        assertThat(circuitBreaker.getState()).isEqualTo(State.CLOSED);
+        assertThat(circuitBreaker.tryAcquire()).isTrue();
+
+        circuitBreaker.record(false, 10);
+        assertThat(circuitBreaker.getState()).isEqualTo(State.OPEN);
+        assertThat(circuitBreaker.tryAcquire()).isFalse();
+        assertThat(circuitBreaker.isCallPermitted()).isFalse();
+
+        Thread.sleep(OPEN_DURATION_MS + 50);
+        assertThat(circuitBreaker.isCallPermitted()).isTrue();
+        assertThat(circuitBreaker.tryAcquire()).isTrue();
+        assertThat(circuitBreaker.getState()).isEqualTo(State.HALF_OPEN);
+        // 시험 호출 중에는 다른 호출을 막는다
+        assertThat(circuitBreaker.tryAcquire()).isFalse();
+
+        circuitBreaker.record(true, 10);
+        assertThat(circuitBreaker.getState()).isEqualTo(State.CLOSED);
+        assertThat(circuitBreaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void failedTrialReopensImmediately() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            circuitBreaker.record(false, 10);
+        }
+        Thread.sleep(OPEN_DURATION_MS + 50);
+        assertThat(circuitBreaker.tryAcquire()).isTrue();
+
+        circuitBreaker.record(false, 10);
+
+        assertThat(circuitBreaker.getState()).isEqualTo(State.OPEN);
+        assertThat(circuitBreaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void slowSuccessCountsAsFailure() {
+        for (int i = 0; i < 3; i++) {
+            circuitBreaker.record(true, 1500);
+        }
+
+        assertThat(circuitBreaker.getState()).isEqualTo(State.OPEN);
+    }
+
+    @Test
+    void successResetsFailureCount() {
+        circuitBreaker.record(false, 10);
+        circuitBreaker.record(false, 10);
+        circuitBreaker.record(true, 10);
+        circuitBreaker.record(false, 10);
+        circuitBreaker.record(false, 10);
+
+        assertThat(circuitBreaker.getState()).isEqualTo(State.CLOSED);
+    }
+}
@@ -0,0 +1,187 @@
+package org.example.service;
+
+import org.example.config.SmsRuleConfig;
+import org.example.dto.QueueDeltaEvent;
+import org.example.model.Patient;
+import org.example.model.Reception;
+import org.example.model.Reception.ReceptionStatus;
+import org.example.repository.ReceptionRepository;
+import org.example.repository.SmsOutboxRepository;
+import org.example.service.WaitingQueueIndex.QueueKey;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SyncTaskExecutor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 순번 알림 규칙: 알림 순번(2, 5번째) 앞쪽이 바뀐 이벤트에만 평가하고,
+ * 새로 넘어선 알림 순번마다 한 번만 등록 (순번을 건너뛰거나 변경이 합쳐져도 누락 없음), 실패한 등록은 다음 평가에서 다시 시도
+ */
+class SmsNotificationRuleServiceTest {
+
+    private static final LocalDateTime CONFIRMED_AT = LocalDateTime.of(2026, 1, 1, 9, 0);
+
+    private final WaitingQueueIndex waitingQueueIndex = mock(WaitingQueueIndex.class);
+    private final ReceptionRepository receptionRepository = mock(ReceptionRepository.class);
+    private final SmsOutboxRepository smsOutboxRepository = mock(SmsOutboxRepository.class);
+    private final SmsOutboxDispatcher smsOutboxDispatcher = mock(SmsOutboxDispatcher.class);
+    private final SmsService smsService = mock(SmsService.class);
+
+    // CONFIRMED 대기열 (앞에서부터 1번째)
+    private final List<Long> queue = new ArrayList<>();
+
+    private SmsNotificationRuleService ruleService;
+
+    @BeforeEach
+    void setUp() {
+        SmsRuleConfig smsRuleConfig = new SmsRuleConfig();
+        smsRuleConfig.setPositions(Arrays.asList(5, 2));
+        ruleService = new SmsNotificationRuleService(waitingQueueIndex, receptionRepository, smsOutboxRepository,
+            smsOutboxDispatcher, smsService, smsRuleConfig, new SyncTaskExecutor());
+
+        when(smsService.isValidPhoneNumber(anyString())).thenReturn(true);
+        when(smsService.waitingText(anyString(), anyInt())).thenReturn("[병원 알림] 테스트");
+        when(waitingQueueIndex.head(anyInt())).thenAnswer(invocation -> {
+            int limit = invocation.getArgument(0);
+            List<QueueKey> head = new ArrayList<>();
+            for (Long id : queue.subList(0, Math.min(limit, queue.size()))) {
+                head.add(QueueKey.restore(id, ReceptionStatus.CONFIRMED, LocalDateTime.now(), null));
+            }
+            return head;
+        });
+        when(receptionRepository.findByIdWithPatient(anyLong())).thenAnswer(invocation -> Optional.of(reception(invocation.getArgument(0))));
+        when(smsOutboxRepository.enqueue(anyString(), any(), anyString(), anyString(), anyString(), any())).thenReturn(1);
+    }
+
+    @Test
+    void changesBehindLastThresholdAreIgnored() {
+        queue.addAll(Arrays.asList(10L, 20L, 30L, 40L, 50L));
+
+        ruleService.onQueueDelta(delta(ReceptionStatus.PENDING, 2, ReceptionStatus.CONFIRMED, 6));
+        ruleService.onQueueDelta(delta(null, 0, ReceptionStatus.PENDING, 1));
+
+        verify(waitingQueueIndex, never()).head(anyInt());
+        verify(smsOutboxRepository, never()).enqueue(anyString(), any(), anyString(), anyString(), anyString(), any());
+    }
+
+    @Test
+    void everyEntryInsideThresholdIsEnqueuedOnce() {
+        queue.addAll(Arrays.asList(10L, 20L, 30L, 40L, 50L, 60L));
+
+        ruleService.onQueueDelta(delta(ReceptionStatus.PENDING, 3, ReceptionStatus.CONFIRMED, 5));
+        // 같은 접수가 계속 알림 순번 안에 있으면 다시 등록하지 않는다
+        ruleService.onQueueDelta(delta(ReceptionStatus.CONFIRMED, 4, ReceptionStatus.CONFIRMED, 3));
+
+        verifyWaitingNotice(10L, 2);
+        verifyWaitingNotice(20L, 2);
+        verifyWaitingNotice(30L, 5);
+        verifyWaitingNotice(40L, 5);
+        verifyWaitingNotice(50L, 5);
+        verifyNoWaitingNotice(60L);
+        verify(smsOutboxDispatcher, times(5)).requestDispatch();
+    }
+
+    @Test
+    void holderJumpingOverThresholdIsNotified() {
+        queue.addAll(Arrays.asList(10L, 20L, 30L, 40L, 50L, 60L, 70L));
+        ruleService.evaluate(false);
+        verifyWaitingNotice(30L, 5);
+        verifyNoWaitingNotice(70L);
+
+        // 3번째 -> 1번째 (2번째 순번을 밟지 않고 건너뜀), 7번째 -> 2번째 (5번째도 함께 건너뜀)
+        queue.remove(30L);
+        queue.add(0, 30L);
+        queue.remove(70L);
+        queue.add(1, 70L);
+        ruleService.onQueueDelta(delta(ReceptionStatus.CONFIRMED, 3, ReceptionStatus.CONFIRMED, 1));
+
+        verifyWaitingNotice(30L, 2);
+        // 여러 순번을 한 번에 넘어서면 가장 가까운 순번 알림 한 건만 등록
+        verifyWaitingNotice(70L, 2);
+        verify(smsOutboxRepository, never()).enqueue(eq(waitingKey(70L, 5)), anyLong(), anyString(), anyString(), anyString(), any());
+    }
+
+    @Test
+    void coalescedRemovalsNotifyEveryoneWhoCrossed() {
+        queue.addAll(Arrays.asList(10L, 20L, 30L, 40L, 50L, 60L, 70L, 80L));
+        ruleService.evaluate(false);
+
+        // 앞의 두 명이 호출되었지만 평가는 한 번만 실행 (이벤트가 몰려 합쳐진 경우)
+        queue.remove(10L);
+        queue.remove(20L);
+        ruleService.evaluate(false);
+
+        verifyWaitingNotice(30L, 2);
+        verifyWaitingNotice(40L, 2);
+        verifyWaitingNotice(60L, 5);
+        verifyWaitingNotice(70L, 5);
+        verifyNoWaitingNotice(80L);
+    }
+
+    @Test
+    void failedEnqueueIsRetriedOnNextEvaluation() {
+        queue.addAll(Arrays.asList(10L, 20L));
+        when(smsOutboxRepository.enqueue(eq(waitingKey(20L, 2)), eq(20L), anyString(), anyString(), anyString(), any()))
+            .thenThrow(new RuntimeException("DB 연결 실패"))
+            .thenReturn(1);
+
+        ruleService.onQueueDelta(delta(ReceptionStatus.PENDING, 3, ReceptionStatus.CONFIRMED, 2));
+        ruleService.onQueueDelta(delta(ReceptionStatus.CONFIRMED, 2, ReceptionStatus.CONFIRMED, 1));
+
+        verify(smsOutboxRepository, times(2)).enqueue(eq(waitingKey(20L, 2)), eq(20L), anyString(), anyString(), anyString(), any());
+        verifyWaitingNotice(10L, 2);
+    }
+
+    private void verifyWaitingNotice(long id, int position) {
+        verify(smsOutboxRepository, times(1)).enqueue(eq(waitingKey(id, position)), eq(id), anyString(), anyString(), anyString(), any());
+    }
+
+    private void verifyNoWaitingNotice(long id) {
+        verify(smsOutboxRepository, never()).enqueue(startsWith("WAITING:" + id + ":"), eq(id), anyString(), anyString(), anyString(), any());
+    }
+
+    private static String waitingKey(long id, int position) {
+        return "WAITING:" + id + ":" + CONFIRMED_AT + ":" + position;
+    }
+
+    private static Reception reception(long id) {
+        Patient patient = new Patient();
+        patient.setName("환자" + id);
+        patient.setPhoneNumber("010-1234-5678");
+        Reception reception = new Reception();
+        reception.setId(id);
+        reception.setPatient(patient);
+        reception.setStatus(ReceptionStatus.CONFIRMED);
+        reception.setSmsNotificationEnabled(true);
+        reception.setConfirmedAt(CONFIRMED_AT);
+        return reception;
+    }
+
+    private static QueueDeltaEvent delta(ReceptionStatus fromStatus, int fromPosition, ReceptionStatus toStatus, int toPosition) {
+        return QueueDeltaEvent.builder()
+            .op(fromStatus == null ? QueueDeltaEvent.Op.ADDED : QueueDeltaEvent.Op.MOVED)
+            .receptionId(99L)
+            .fromStatus(fromStatus)
+            .fromPosition(fromPosition)
+            .toStatus(toStatus)
+            .toPosition(toPosition)
+            .build();
+    }
+}
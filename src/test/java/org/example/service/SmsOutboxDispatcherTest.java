@@ -0,0 +1,109 @@
+package org.example.service;
+
+import org.example.PostgresIntegrationTest;
+import org.example.config.SmsOutboxConfig;
+import org.example.model.Reception;
+import org.example.model.Reception.ReceptionStatus;
+import org.example.model.SmsOutbox;
+import org.example.model.SmsOutbox.OutboxStatus;
+import org.example.repository.SmsOutboxRepository;
+import org.example.service.SmsService.BatchResult;
+import org.example.service.SmsService.SendResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 발송기의 결과 반영: 차단 중이라 시도하지 못한 요청은 시도 횟수와 백오프를 쓰지 않는다
+ */
+class SmsOutboxDispatcherTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private SmsOutboxRepository smsOutboxRepository;
+
+    private final SmsService smsService = mock(SmsService.class);
+    private final SmsOutboxConfig config = new SmsOutboxConfig();
+
+    @BeforeEach
+    void setUp() {
+        when(smsService.isProviderAvailable()).thenReturn(true);
+        when(smsService.isProviderDegraded()).thenReturn(false);
+    }
+
+    @Test
+    void notAttemptedBatchIsReleasedWithoutSpendingAttempt() {
+        config.setBatchMode(true);
+        when(smsService.sendWaitingNotifications(anyList())).thenReturn(new BatchResult(false, Collections.emptyMap()));
+        enqueue("a");
+        enqueue("b");
+
+        dispatchAndWait();
+
+        List<SmsOutbox> rows = smsOutboxRepository.findAll();
+        assertThat(rows).hasSize(2);
+        for (SmsOutbox row : rows) {
+            assertThat(row.getStatus()).isEqualTo(OutboxStatus.PENDING);
+            assertThat(row.getAttempts()).isZero();
+            assertThat(row.getNextAttemptAt()).isBefore(LocalDateTime.now());
+            assertThat(row.getLastError()).isNull();
+        }
+    }
+
+    @Test
+    void notAttemptedSingleSendIsReleasedWithoutSpendingAttempt() {
+        config.setBatchMode(false);
+        when(smsService.sendWaitingNotification(any(SmsOutbox.class))).thenReturn(SendResult.NOT_ATTEMPTED);
+        enqueue("a");
+
+        dispatchAndWait();
+
+        SmsOutbox row = smsOutboxRepository.findAll().get(0);
+        assertThat(row.getStatus()).isEqualTo(OutboxStatus.PENDING);
+        assertThat(row.getAttempts()).isZero();
+    }
+
+    @Test
+    void failedSendSpendsAttemptAndBacksOff() {
+        config.setBatchMode(false);
+        when(smsService.sendWaitingNotification(any(SmsOutbox.class))).thenReturn(SendResult.FAILED);
+        enqueue("a");
+
+        dispatchAndWait();
+
+        SmsOutbox row = smsOutboxRepository.findAll().get(0);
+        assertThat(row.getStatus()).isEqualTo(OutboxStatus.PENDING);
+        assertThat(row.getAttempts()).isEqualTo(1);
+        assertThat(row.getNextAttemptAt()).isAfter(LocalDateTime.now());
+        assertThat(row.getLastError()).isNotNull();
+    }
+
+    private void enqueue(String key) {
+        Reception reception = createReception("문자" + key, ReceptionStatus.CONFIRMED, key.charAt(0));
+        smsOutboxRepository.enqueue("TEST:" + key, reception.getId(), "010-1234-5678", "문자" + key, "[병원 알림] 테스트",
+            LocalDateTime.now().minusSeconds(1));
+    }
+
+    private void dispatchAndWait() {
+        ThreadPoolTaskExecutor executor = config.smsDispatchExecutor();
+        executor.initialize();
+        SmsOutboxDispatcher dispatcher = new SmsOutboxDispatcher(smsOutboxRepository, smsService, config, executor);
+        try {
+            dispatcher.dispatch();
+        } finally {
+            // 남은 발송 작업이 끝날 때까지 기다린다
+            executor.shutdown();
+            dispatcher.shutdown();
+        }
+    }
+}
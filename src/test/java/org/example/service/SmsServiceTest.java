@@ -0,0 +1,202 @@
+package org.example.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.example.config.SmsClientConfig;
+import org.example.service.SmsCircuitBreaker.State;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.example.model.SmsOutbox;
+import org.example.service.SmsService.BatchResult;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 로컬 대체 서버(HttpServer)로 SMS 제공자 호출: 느린 응답과 응답 시간 초과가 차단기를 여는지 확인
+ */
+class SmsServiceTest {
+
+    private static final long OPEN_DURATION_MS = 300;
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile long responseDelayMs;
+    private volatile String responseBody = "{\"failedMessageList\":[]}";
+    private volatile String lastRequestBody;
+
+    private HttpServer server;
+    private CloseableHttpClient httpClient;
+    private SmsCircuitBreaker circuitBreaker;
+    private SmsService smsService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/messages/v4/", exchange -> {
+            requests.incrementAndGet();
+            lastRequestBody = StreamUtils.copyToString(exchange.getRequestBody(), StandardCharsets.UTF_8);
+            try {
+                Thread.sleep(responseDelayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = responseBody.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+
+        SmsClientConfig config = new SmsClientConfig();
+        config.setReadTimeoutMs(500);
+        config.setSlowCallMs(150);
+        config.setFailureThreshold(2);
+        config.setOpenDurationMs(OPEN_DURATION_MS);
+        httpClient = config.smsHttpClient();
+        circuitBreaker = new SmsCircuitBreaker(config);
+
+        RuntimeSettingsService runtimeSettings = mock(RuntimeSettingsService.class);
+        when(runtimeSettings.getBoolean(eq(RuntimeSettingsService.SMS_SIMULATION_MODE), anyBoolean())).thenReturn(false);
+        smsService = new SmsService(config.smsRestTemplate(httpClient), circuitBreaker, new ObjectMapper(), runtimeSettings);
+        ReflectionTestUtils.setField(smsService, "apiKey", "test-key");
+        ReflectionTestUtils.setField(smsService, "apiSecret", "test-secret");
+        ReflectionTestUtils.setField(smsService, "fromNumber", "01000000000");
+        ReflectionTestUtils.setField(smsService, "apiDomain", "http://127.0.0.1:" + server.getAddress().getPort());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        httpClient.close();
+        server.stop(0);
+    }
+
+    @Test
+    void slowResponsesTripBreakerAndRecoveryClosesIt() throws InterruptedException {
+        responseDelayMs = 250;
+
+        // 느려도 응답은 성공이지만 연속 두 번이면 차단
+        assertThat(smsService.sendWaitingNotification("010-1234-5678", "홍길동")).isTrue();
+        assertThat(circuitBreaker.getState()).isEqualTo(State.CLOSED);
+        assertThat(smsService.sendWaitingNotification("010-1234-5678", "홍길동")).isTrue();
+        assertThat(circuitBreaker.getState()).isEqualTo(State.OPEN);
+
+        // 차단 중에는 제공자를 호출하지 않는다
+        assertThat(smsService.sendWaitingNotification("010-1234-5678", "홍길동")).isFalse();
+        assertThat(requests.get()).isEqualTo(2);
+        assertThat(smsService.isProviderAvailable()).isFalse();
+
+        // 차단 시간이 지나면 시험 호출 한 건이 빠르게 성공해 정상으로 돌아온다
+        responseDelayMs = 0;
+        Thread.sleep(OPEN_DURATION_MS + 50);
+        assertThat(smsService.sendWaitingNotification("010-1234-5678", "홍길동")).isTrue();
+        assertThat(circuitBreaker.getState()).isEqualTo(State.CLOSED);
+        assertThat(requests.get()).isEqualTo(3);
+    }
+
+    @Test
+    void readTimeoutCountsAsFailure() {
+        responseDelayMs = 5000;
+
+        long startedAt = System.currentTimeMillis();
+        assertThat(smsService.sendWaitingNotification("010-1234-5678", "홍길동")).isFalse();
+        assertThat(smsService.sendWaitingNotification("010-1234-5678", "홍길동")).isFalse();
+
+        // 응답을 끝까지 기다리지 않고 읽기 제한 시간에서 끊는다
+        assertThat(System.currentTimeMillis() - startedAt).isLessThan(3000);
+        assertThat(circuitBreaker.getState()).isEqualTo(State.OPEN);
+    }
+
+    @Test
+    void batchFailuresAreMatchedByOutboxIdNotPhoneNumber() {
+        // 같은 번호로 두 건 (호출 알림과 순번 알림) 중 한 건만 실패
+        List<SmsOutbox> messages = Arrays.asList(outbox(11L, "010-1234-5678"), outbox(12L, "010-1234-5678"), outbox(13L, "010-9999-0000"));
+        responseBody = "{\"failedMessageList\":[{\"to\":\"01012345678\",\"statusCode\":\"3059\","
+            + "\"statusMessage\":\"변작된 발신번호\",\"customFields\":{\"outboxId\":\"12\"}}]}";
+
+        BatchResult result = smsService.sendWaitingNotifications(messages);
+
+        assertThat(lastRequestBody).contains("\"customFields\":{\"outboxId\":\"11\"}");
+        assertThat(result.isAttempted()).isTrue();
+        assertThat(result.getFailures()).containsOnlyKeys(12L);
+        assertThat(result.getFailures().get(12L)).isEqualTo("변작된 발신번호");
+    }
+
+    @Test
+    void batchWhileOpenIsNotAttempted() {
+        circuitBreaker.record(false, 0);
+        circuitBreaker.record(false, 0);
+
+        BatchResult result = smsService.sendWaitingNotifications(Arrays.asList(outbox(1L, "010-1234-5678"), outbox(2L, "010-2222-3333")));
+
+        assertThat(result.isAttempted()).isFalse();
+        assertThat(result.getFailures()).isEmpty();
+        assertThat(requests.get()).isZero();
+        assertThat(smsService.sendWaitingNotification(outbox(3L, "010-1234-5678"))).isEqualTo(SmsService.SendResult.NOT_ATTEMPTED);
+    }
+
+    /**
+     * 대체 서버 응답 지연 40ms에서 건별 발송과 다건 발송의 처리량 비교
+     */
+    @Test
+    void batchSendingRaisesThroughputAgainstStandInProvider() {
+        responseDelayMs = 40;
+        int count = 40;
+        int batchSize = 20;
+        List<SmsOutbox> messages = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            messages.add(outbox((long) i + 1, String.format("010-1234-%04d", i)));
+        }
+        // 연결 수립 비용을 빼기 위해 한 번 호출해 둔다
+        smsService.sendWaitingNotification(messages.get(0));
+        requests.set(0);
+
+        long startedAt = System.nanoTime();
+        for (SmsOutbox message : messages) {
+            assertThat(smsService.sendWaitingNotification(message)).isEqualTo(SmsService.SendResult.SENT);
+        }
+        long singleMs = (System.nanoTime() - startedAt) / 1_000_000;
+        int singleRequests = requests.getAndSet(0);
+
+        startedAt = System.nanoTime();
+        for (int from = 0; from < count; from += batchSize) {
+            assertThat(smsService.sendWaitingNotifications(messages.subList(from, from + batchSize)).getFailures()).isEmpty();
+        }
+        long batchMs = (System.nanoTime() - startedAt) / 1_000_000;
+        int batchRequests = requests.get();
+
+        assertThat(singleRequests).isEqualTo(count);
+        assertThat(batchRequests).isEqualTo(count / batchSize);
+        // 건별은 요청마다 응답 지연을 기다리므로 최소 count × 지연
+        assertThat(singleMs).isGreaterThanOrEqualTo(count * responseDelayMs);
+        assertThat(batchMs).isLessThan(singleMs / 4);
+    }
+
+    private static SmsOutbox outbox(Long id, String phoneNumber) {
+        SmsOutbox outbox = new SmsOutbox();
+        outbox.setId(id);
+        outbox.setPhoneNumber(phoneNumber);
+        outbox.setPatientName("환자" + id);
+        outbox.setMessageText("[병원 알림] 테스트");
+        return outbox;
+    }
+}